@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("jacoco")
     alias(libs.plugins.micronaut.application)
+    alias(libs.plugins.jmh)
 }
 
 group = "co.piter"
@@ -33,8 +34,11 @@ dependencies {
 
     implementation(libs.bundles.micronaut.core)
     implementation(libs.bundles.micronaut.data)
+    implementation(libs.bundles.micronaut.metrics)
+    implementation(libs.bundles.micronaut.tracing)
     implementation(libs.micronaut.openapi)
     implementation(libs.jetbrains.annotations)
+    implementation(libs.caffeine)
     compileOnly(libs.swagger.annotations)
     runtimeOnly(libs.bundles.runtime)
 
@@ -43,6 +47,18 @@ dependencies {
     testAnnotationProcessor(libs.micronaut.inject.java)
 }
 
+// ./gradlew jmh, or -PjmhIncludes=<regex> for a subset; results in build/results/jmh/results.json
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    includes.set(listOf(providers.gradleProperty("jmhIncludes").getOrElse(".*")))
+    fork.set(1)
+    warmupIterations.set(2)
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    warmup.set("1s")
+    resultFormat.set("JSON")
+}
+
 tasks.test {
     useJUnitPlatform()
     finalizedBy("cleanupDatabase")
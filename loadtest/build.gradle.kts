@@ -0,0 +1,34 @@
+plugins {
+    id("java")
+    id("application")
+}
+
+group = "co.piter"
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+application {
+    mainClass.set("co.piter.buyrecipes.loadtest.LoadTest")
+}
+
+dependencies {
+    implementation(platform(libs.micronaut.platform))
+    implementation(libs.micronaut.http.client)
+    implementation(libs.micronaut.jackson.databind)
+    implementation(libs.hdrhistogram)
+    implementation(libs.jetbrains.annotations)
+    runtimeOnly(libs.logback.classic)
+}
+
+// ./gradlew :loadtest:run --args="--url=http://localhost:8080 --rate=50 --duration=60s"
+tasks.named<JavaExec>("run") {
+    workingDir = rootProject.projectDir
+}
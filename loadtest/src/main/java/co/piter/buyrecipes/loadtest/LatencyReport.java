@@ -0,0 +1,80 @@
+package co.piter.buyrecipes.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// one HDR histogram per endpoint, in microseconds, shared by all the virtual users
+final class LatencyReport {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final @NotNull Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final long recordingSinceNanos;
+
+    LatencyReport(final long recordingSinceNanos) {
+        this.recordingSinceNanos = recordingSinceNanos;
+    }
+
+    // calls that start before this point are warm-up and not recorded
+    boolean isRecording(final long startNanos) {
+        return startNanos >= recordingSinceNanos;
+    }
+
+    void record(final @NotNull String endpoint, final long startNanos, final long endNanos) {
+        if (isRecording(startNanos)) {
+            latencies.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+                    .recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos));
+        }
+    }
+
+    void recordError(final @NotNull String endpoint, final long startNanos) {
+        if (isRecording(startNanos)) {
+            errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        }
+    }
+
+    void print(final @NotNull PrintStream out, final long endNanos) {
+        final double seconds = Math.max(1L, endNanos - recordingSinceNanos) / 1e9;
+        out.printf("%-45s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        final Map<String, Histogram> sorted = new TreeMap<>(latencies);
+        errors.keySet().forEach(endpoint -> sorted.putIfAbsent(endpoint, new Histogram(SIGNIFICANT_DIGITS)));
+        sorted.forEach((endpoint, histogram) -> out.printf("%-45s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint,
+                histogram.getTotalCount(),
+                errors.getOrDefault(endpoint, new LongAdder()).sum(),
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50.0)),
+                millis(histogram.getValueAtPercentile(90.0)),
+                millis(histogram.getValueAtPercentile(99.0)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+    }
+
+    // full percentile distribution per endpoint, readable by the HdrHistogram plotter
+    void writeDistributions(final @NotNull Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (final Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            final String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(directory.resolve(fileName).toFile())) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0); // micros to millis
+            }
+        }
+    }
+
+    private static double millis(final long micros) {
+        return micros / 1000.0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+package co.piter.buyrecipes.loadtest;
+
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.DefaultHttpClientConfiguration;
+import io.micronaut.http.client.HttpClient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+// drives the running API with a weighted mix of shopping scenarios, either closed loop (--users, each virtual user
+// starts its next scenario when the last one finishes) or open loop (--rate, scenarios arrive on schedule whether
+// or not the server keeps up, latencies counted from the scheduled arrival so queueing is not hidden)
+public final class LoadTest {
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+        // main only
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Options options = Options.parse(args);
+        final DefaultHttpClientConfiguration configuration = new DefaultHttpClientConfiguration();
+        configuration.setReadTimeout(Duration.ofSeconds(30));
+        try (HttpClient httpClient = HttpClient.create(new URL(options.url()), configuration)) {
+            final BlockingHttpClient client = httpClient.toBlocking();
+            final Session.Catalog catalog = Session.Catalog.load(client);
+            log.info("Shopping {} recipes and {} products at {}: {}",
+                    catalog.recipeIds().size(), catalog.productIds().size(), options.url(), options.describe());
+
+            final long start = System.nanoTime();
+            final long end = start + options.warmup().plus(options.duration()).toNanos();
+            final LatencyReport report = new LatencyReport(start + options.warmup().toNanos());
+            if (options.users() > 0) {
+                runClosedLoop(options, client, catalog, report, end);
+            } else {
+                runOpenLoop(options, client, catalog, report, start, end);
+            }
+            report.print(System.out, System.nanoTime());
+            if (options.reportDir() != null) {
+                report.writeDistributions(options.reportDir());
+                log.info("Latency distributions written to {}", options.reportDir());
+            }
+        }
+    }
+
+    private static void runClosedLoop(
+            final @NotNull Options options,
+            final @NotNull BlockingHttpClient client,
+            final @NotNull Session.Catalog catalog,
+            final @NotNull LatencyReport report,
+            final long end
+    ) throws InterruptedException {
+        final ExecutorService users = Executors.newFixedThreadPool(options.users());
+        final SplittableRandom seeds = new SplittableRandom(options.seed());
+        for (int i = 0; i < options.users(); i++) {
+            final Session session = new Session(client, report, catalog, seeds.split());
+            users.execute(() -> {
+                while (System.nanoTime() < end) {
+                    final long scenarioStart = System.nanoTime();
+                    final Scenario scenario = options.pick(session);
+                    scenario.run(session);
+                    report.record("scenario " + scenario.id(), scenarioStart, System.nanoTime());
+                }
+            });
+        }
+        users.shutdown();
+        users.awaitTermination(end - System.nanoTime() + TimeUnit.SECONDS.toNanos(60), TimeUnit.NANOSECONDS);
+    }
+
+    private static void runOpenLoop(
+            final @NotNull Options options,
+            final @NotNull BlockingHttpClient client,
+            final @NotNull Session.Catalog catalog,
+            final @NotNull LatencyReport report,
+            final long start,
+            final long end
+    ) throws InterruptedException {
+        final long periodNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / options.rate()));
+        final ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        final ExecutorService visitors = Executors.newCachedThreadPool();
+        final Semaphore inFlight = new Semaphore(options.maxInFlight());
+        final SplittableRandom seeds = new SplittableRandom(options.seed()); // only touched by the arrivals thread
+        final AtomicLong arrival = new AtomicLong();
+        // fixed rate runs late arrivals back to back, so the scheduled times below stay on the intended grid
+        arrivals.scheduleAtFixedRate(() -> {
+            final long scheduled = start + arrival.getAndIncrement() * periodNanos;
+            if (scheduled >= end) {
+                return;
+            }
+            if (!inFlight.tryAcquire()) {
+                report.recordError("dropped arrivals", scheduled); // the server is this far behind the offered load
+                return;
+            }
+            final Session session = new Session(client, report, catalog, seeds.split());
+            visitors.execute(() -> {
+                try {
+                    final Scenario scenario = options.pick(session);
+                    scenario.run(session);
+                    report.record("scenario " + scenario.id(), scheduled, System.nanoTime());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }, 0L, periodNanos, TimeUnit.NANOSECONDS);
+        TimeUnit.NANOSECONDS.sleep(end - System.nanoTime());
+        arrivals.shutdownNow();
+        visitors.shutdown();
+        visitors.awaitTermination(60, TimeUnit.SECONDS);
+    }
+
+    record Options(
+            @NotNull String url,
+            @NotNull Map<Scenario, Integer> mix,
+            int users,
+            double rate,
+            int maxInFlight,
+            @NotNull Duration duration,
+            @NotNull Duration warmup,
+            long seed,
+            @Nullable Path reportDir
+    ) {
+
+        static final @NotNull String USAGE = """
+                --url=http://localhost:8080
+                --scenarios=browse:5,build-cart:3,churn:1,checkout:1,tutorial:1   weights of the scenario mix
+                --users=<n>                                                       closed loop with n virtual users, or
+                --rate=<arrivals per second>                                      open loop, 10 by default
+                --max-in-flight=1000                                              open loop arrivals beyond this are dropped
+                --duration=60s --warmup=10s                                       ms, s, m or h
+                --seed=42 --report-dir=<directory for .hgrm files>""";
+
+        static @NotNull Options parse(final @NotNull String[] args) {
+            final Map<String, String> values = new LinkedHashMap<>();
+            for (final String arg : args) {
+                final int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg + "\n" + USAGE);
+                }
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+            final Map<Scenario, Integer> mix = new LinkedHashMap<>();
+            for (final String weighted : values.getOrDefault("scenarios", "browse:5,build-cart:3,churn:1,checkout:1,tutorial:1").split(",")) {
+                final String[] parts = weighted.trim().split(":");
+                mix.put(Scenario.of(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+            }
+            final String reportDir = values.get("report-dir");
+            return new Options(
+                    values.getOrDefault("url", "http://localhost:8080"),
+                    mix,
+                    Integer.parseInt(values.getOrDefault("users", "0")),
+                    Double.parseDouble(values.getOrDefault("rate", "10")),
+                    Integer.parseInt(values.getOrDefault("max-in-flight", "1000")),
+                    duration(values.getOrDefault("duration", "60s")),
+                    duration(values.getOrDefault("warmup", "10s")),
+                    Long.parseLong(values.getOrDefault("seed", "42")),
+                    reportDir != null ? Path.of(reportDir) : null);
+        }
+
+        @NotNull Scenario pick(final @NotNull Session session) {
+            final int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int roll = session.nextInt(0, total);
+            for (final Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty scenario mix");
+        }
+
+        @NotNull String describe() {
+            return (users > 0 ? users + " virtual users" : rate + " arrivals/s") + ", mix " + mix
+                    + ", " + duration + " after a " + warmup + " warm-up";
+        }
+
+        private static @NotNull Duration duration(final @NotNull String value) {
+            final String unit = value.replaceAll("[0-9]", "");
+            final long amount = Long.parseLong(value.substring(0, value.length() - unit.length()));
+            return switch (unit) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                default -> throw new IllegalArgumentException("Unknown duration unit in: " + value);
+            };
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package co.piter.buyrecipes.loadtest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+// the shopping journeys a virtual user runs, endpoints are reported by template so ids do not split them
+enum Scenario {
+
+    // browse the recipe list, open a couple of recipes and price one
+    BROWSE("browse", session -> {
+        session.get("GET /recipes", "/recipes?limit=20");
+        for (int i = session.nextInt(1, 4); i > 0; i--) {
+            session.get("GET /recipes/{id}", "/recipes/" + session.randomRecipeId());
+        }
+        session.get("GET /recipes/{id}/cost", "/recipes/" + session.randomRecipeId() + "/cost");
+    }),
+
+    // a new cart filled one recipe and product at a time, then read back
+    BUILD_CART("build-cart", session -> session.createCart().ifPresent(cartId -> {
+        for (int i = session.nextInt(1, 4); i > 0; i--) {
+            session.post("POST /carts/{id}/add_recipe", "/carts/" + cartId + "/add_recipe",
+                    Map.of("recipeId", session.randomRecipeId()));
+        }
+        for (int i = session.nextInt(0, 3); i > 0; i--) {
+            session.post("POST /carts/{id}/add_product", "/carts/" + cartId + "/add_product",
+                    Map.of("productId", session.randomProductId()));
+        }
+        session.get("GET /carts/{id}", "/carts/" + cartId);
+    })),
+
+    // changing one's mind: recipes and products added, then some taken out again
+    CHURN("churn", session -> session.createCart().ifPresent(cartId -> {
+        final Long keep = session.randomRecipeId();
+        final Long drop = session.randomRecipeId();
+        final Long product = session.randomProductId();
+        session.post("POST /carts/{id}/add_recipe", "/carts/" + cartId + "/add_recipe", Map.of("recipeId", keep));
+        session.post("POST /carts/{id}/add_recipe", "/carts/" + cartId + "/add_recipe", Map.of("recipeId", drop));
+        session.post("POST /carts/{id}/add_product", "/carts/" + cartId + "/add_product", Map.of("productId", product));
+        session.delete("DELETE /carts/{id}/recipes/{id}", "/carts/" + cartId + "/recipes/" + drop);
+        session.delete("DELETE /carts/{id}/products/{id}", "/carts/" + cartId + "/products/" + product);
+        session.get("GET /carts/{id}", "/carts/" + cartId);
+    })),
+
+    // TutorialIT steps 5 to 8: a new cart, the paella added to it, then the cart and the recipe read back
+    TUTORIAL("tutorial", session -> session.createCart().ifPresent(cartId -> {
+        final Long paellaId = session.tutorialRecipeId();
+        session.post("POST /carts/{id}/add_recipe", "/carts/" + cartId + "/add_recipe", Map.of("recipeId", paellaId));
+        session.get("GET /carts/{id}", "/carts/" + cartId);
+        session.get("GET /recipes/{id}", "/recipes/" + paellaId);
+    })),
+
+    // the whole basket in one request, then the checkout page reads the cart
+    CHECKOUT("checkout", session -> session.createCart().ifPresent(cartId -> {
+        final List<Long> recipeIds = new ArrayList<>();
+        for (int i = session.nextInt(2, 6); i > 0; i--) {
+            recipeIds.add(session.randomRecipeId());
+        }
+        session.post("POST /carts/{id}/add_recipes", "/carts/" + cartId + "/add_recipes", Map.of("recipeIds", recipeIds));
+        session.get("GET /carts/{id}", "/carts/" + cartId);
+    }));
+
+    private final @NotNull String id;
+    private final @NotNull Consumer<Session> steps;
+
+    Scenario(final @NotNull String id, final @NotNull Consumer<Session> steps) {
+        this.id = requireNonNull(id);
+        this.steps = requireNonNull(steps);
+    }
+
+    @NotNull String id() {
+        return id;
+    }
+
+    void run(final @NotNull Session session) {
+        steps.accept(session);
+    }
+
+    static @NotNull Scenario of(final @NotNull String id) {
+        for (final Scenario scenario : values()) {
+            if (scenario.id.equals(id)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + id);
+    }
+}
\ No newline at end of file
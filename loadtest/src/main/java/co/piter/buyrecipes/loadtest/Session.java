@@ -0,0 +1,100 @@
+package co.piter.buyrecipes.loadtest;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static java.util.Objects.requireNonNull;
+
+// one virtual user: times each call against its endpoint template, failures are counted and the scenario goes on
+final class Session {
+
+    private static final @NotNull Argument<Map<String, Object>> JSON_OBJECT = Argument.mapOf(String.class, Object.class);
+
+    private final @NotNull BlockingHttpClient client;
+    private final @NotNull LatencyReport report;
+    private final @NotNull Catalog catalog;
+    private final @NotNull SplittableRandom random;
+
+    Session(
+            final @NotNull BlockingHttpClient client,
+            final @NotNull LatencyReport report,
+            final @NotNull Catalog catalog,
+            final @NotNull SplittableRandom random
+    ) {
+        this.client = requireNonNull(client);
+        this.report = requireNonNull(report);
+        this.catalog = requireNonNull(catalog);
+        this.random = requireNonNull(random);
+    }
+
+    @NotNull Long randomRecipeId() {
+        return catalog.recipeIds().get(random.nextInt(catalog.recipeIds().size()));
+    }
+
+    @NotNull Long tutorialRecipeId() {
+        return catalog.tutorialRecipeId();
+    }
+
+    @NotNull Long randomProductId() {
+        return catalog.productIds().get(random.nextInt(catalog.productIds().size()));
+    }
+
+    int nextInt(final int origin, final int bound) {
+        return random.nextInt(origin, bound);
+    }
+
+    void get(final @NotNull String endpoint, final @NotNull String uri) {
+        call(endpoint, HttpRequest.GET(uri));
+    }
+
+    void post(final @NotNull String endpoint, final @NotNull String uri, final @NotNull Object body) {
+        call(endpoint, HttpRequest.POST(uri, body));
+    }
+
+    void delete(final @NotNull String endpoint, final @NotNull String uri) {
+        call(endpoint, HttpRequest.DELETE(uri));
+    }
+
+    // the new cart's id, empty when the cart could not be created
+    @NotNull Optional<Long> createCart() {
+        return call("POST /carts", HttpRequest.POST("/carts", Map.of("totalInCents", 0)))
+                .map(cart -> ((Number) cart.get("id")).longValue());
+    }
+
+    @NotNull Optional<Map<String, Object>> call(final @NotNull String endpoint, final @NotNull HttpRequest<?> request) {
+        final long start = System.nanoTime();
+        try {
+            final HttpResponse<Map<String, Object>> response = client.exchange(request, JSON_OBJECT);
+            report.record(endpoint, start, System.nanoTime());
+            return response.getBody();
+        } catch (HttpClientException e) {
+            report.recordError(endpoint, start);
+            return Optional.empty();
+        }
+    }
+
+    // ids learnt from the server before the run, scenarios pick from them; the tutorial's paella is set up first
+    record Catalog(@NotNull List<Long> recipeIds, @NotNull List<Long> productIds, @NotNull Long tutorialRecipeId) {
+
+        static @NotNull Catalog load(final @NotNull BlockingHttpClient client) {
+            final Long tutorialRecipeId = Tutorial.setUp(client);
+            final Argument<List<Map<String, Object>>> page = Argument.listOf(JSON_OBJECT);
+            final List<Long> recipeIds = ids(client.retrieve(HttpRequest.GET("/recipes?limit=1000"), page));
+            final List<Long> productIds = ids(client.retrieve(HttpRequest.GET("/products?limit=1000"), page));
+            return new Catalog(recipeIds, productIds, tutorialRecipeId);
+        }
+
+        private static @NotNull List<Long> ids(final @NotNull List<Map<String, Object>> items) {
+            return items.stream().map(item -> ((Number) item.get("id")).longValue()).toList();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package co.piter.buyrecipes.loadtest;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.BlockingHttpClient;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+// the request flow of TutorialIT with its paella: products, recipe and ingredients are set up once before the run
+// (steps 2 to 4), the tutorial scenario then repeats steps 5 to 8 for every virtual user
+final class Tutorial {
+
+    static final @NotNull String NAME = "Paella Valenciana";
+    static final @NotNull String DESCRIPTION = "Traditional Spanish paella for 4 people with chicken, rabbit, and vegetables";
+
+    private record Ingredient(@NotNull String name, int priceInCents, int quantity, @NotNull String unit) {
+    }
+
+    // as in TutorialIT
+    private static final @NotNull List<Ingredient> INGREDIENTS = List.of(
+            new Ingredient("Arroz redondo", 250, 350, "grams"),
+            new Ingredient("Carne de pollo", 890, 600, "grams"),
+            new Ingredient("Carne de conejo", 1200, 400, "grams"),
+            new Ingredient("Tomate maduro", 80, 1, "pieces"),
+            new Ingredient("Bajoqueta (judía verde plana)", 320, 150, "grams"),
+            new Ingredient("Garrofó", 450, 150, "grams"),
+            new Ingredient("Aceite de oliva", 180, 2, "tablespoons"),
+            new Ingredient("Pimentón dulce", 120, 1, "teaspoons"),
+            new Ingredient("Azafrán", 850, 1, "pinches"),
+            new Ingredient("Agua", 0, 3, "cups"),
+            new Ingredient("Sal", 50, 1, "to taste"));
+
+    private static final @NotNull Argument<Map<String, Object>> JSON_OBJECT = Argument.mapOf(String.class, Object.class);
+
+    private Tutorial() {
+        // constants and set up only
+    }
+
+    // the paella's recipe id, created on the first run against a server and found by name afterwards
+    static @NotNull Long setUp(final @NotNull BlockingHttpClient client) {
+        final List<Map<String, Object>> recipes = client.retrieve(
+                HttpRequest.GET("/recipes?limit=1000"), Argument.listOf(JSON_OBJECT));
+        for (final Map<String, Object> recipe : recipes) {
+            if (NAME.equals(recipe.get("name"))) {
+                return id(recipe);
+            }
+        }
+        final Long recipeId = id(client.retrieve(
+                HttpRequest.POST("/recipes", Map.of("name", NAME, "description", DESCRIPTION)), JSON_OBJECT));
+        for (final Ingredient ingredient : INGREDIENTS) {
+            final Long productId = id(client.retrieve(HttpRequest.POST("/products",
+                    Map.of("name", ingredient.name(), "priceInCents", ingredient.priceInCents())), JSON_OBJECT));
+            client.retrieve(HttpRequest.POST("/recipe-ingredients", Map.of(
+                    "recipeId", recipeId,
+                    "productId", productId,
+                    "quantity", ingredient.quantity(),
+                    "unit", ingredient.unit())), JSON_OBJECT);
+        }
+        return recipeId;
+    }
+
+    private static @NotNull Long id(final @NotNull Map<String, Object> item) {
+        return ((Number) item.get("id")).longValue();
+    }
+}
\ No newline at end of file
@@ -1 +1,3 @@
-rootProject.name = "buyrecipes"
\ No newline at end of file
+rootProject.name = "buyrecipes"
+
+include("loadtest")
\ No newline at end of file
@@ -0,0 +1,59 @@
+package co.piter.buyrecipes.benchmark;
+
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.entity.CartItem;
+import co.piter.buyrecipes.repo.CartItemRepository;
+import co.piter.buyrecipes.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+// the cart_items lookups served by the (cart_id, product_id) and (product_id) indexes, on a random cart each time;
+// with the indexes the time per lookup stays flat from 10k to 10M rows, without them it grows with the table.
+// The 10M row table needs a few GB of heap, so the fork gets more
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CartItemLookupBenchmark {
+
+    private CartItemRepository cartItemRepository;
+    private CartService cartService;
+    private final SplittableRandom random = new SplittableRandom(42L);
+
+    @Setup(Level.Trial)
+    public void setUp(final CartItemTable table) {
+        cartItemRepository = table.context.getBean(CartItemRepository.class);
+        cartService = table.context.getBean(CartService.class);
+    }
+
+    @Benchmark
+    public List<CartItem> findByCartId(final CartItemTable table) {
+        return cartItemRepository.findByCartId(randomCart(table));
+    }
+
+    @Benchmark
+    public CartItem findByCartIdAndProductId(final CartItemTable table) {
+        return cartItemRepository.findByCartIdAndProductId(randomCart(table), (long) random.nextInt(1, CartItemTable.PRODUCT_COUNT + 1));
+    }
+
+    @Benchmark
+    public long sumPriceInCentsByCartId(final CartItemTable table) {
+        return cartItemRepository.sumPriceInCentsByCartId(randomCart(table));
+    }
+
+    // the lines, the cached products and the DTO mapping, what GET /carts/{id} costs
+    @Benchmark
+    public Optional<CartDto> getCartById(final CartItemTable table) {
+        return cartService.getCartById(randomCart(table));
+    }
+
+    private long randomCart(final CartItemTable table) {
+        return random.nextInt(1, table.carts + 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package co.piter.buyrecipes.benchmark;
+
+import co.piter.buyrecipes.CatalogGenerator;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+import java.util.UUID;
+
+// an application context over its own in-memory H2 whose cart_items table holds the parameterized number of rows,
+// written by CatalogGenerator as carts of ITEMS_PER_CART lines; a fresh database, so carts are ids 1..carts
+@State(Scope.Benchmark)
+public class CartItemTable {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    static final int PRODUCT_COUNT = 1000;
+    static final int ITEMS_PER_CART = 10;
+
+    ApplicationContext context;
+    int carts;
+
+    @Setup(Level.Trial)
+    public void start() {
+        carts = rows / ITEMS_PER_CART;
+        context = ApplicationContext.builder()
+                .properties(Map.ofEntries(
+                        Map.entry("datasources.default.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"),
+                        Map.entry("buyrecipes.carts.reconciliation.enabled", "false"),
+                        Map.entry("buyrecipes.generator.products", String.valueOf(PRODUCT_COUNT)),
+                        Map.entry("buyrecipes.generator.recipes", "10"),
+                        Map.entry("buyrecipes.generator.carts", String.valueOf(carts)),
+                        Map.entry("buyrecipes.generator.min-items-per-cart", String.valueOf(ITEMS_PER_CART)),
+                        Map.entry("buyrecipes.generator.max-items-per-cart", String.valueOf(ITEMS_PER_CART))))
+                .start();
+        context.getBean(CatalogGenerator.class).generate();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
\ No newline at end of file
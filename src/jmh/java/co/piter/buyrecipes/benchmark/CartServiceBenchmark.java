@@ -0,0 +1,53 @@
+package co.piter.buyrecipes.benchmark;
+
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+
+@State(Scope.Thread)
+public class CartServiceBenchmark {
+
+    private CartService cartService;
+    private Long cartId;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        cartService = catalog.context.getBean(CartService.class);
+    }
+
+    // a fresh cart per iteration keeps the lines bounded by the catalog and the total within an int
+    @Setup(Level.Iteration)
+    public void newCart(final Catalog catalog) {
+        cartId = catalog.newCart();
+    }
+
+    @Benchmark
+    public Optional<CartDto> addRecipeToCart(final Catalog catalog) {
+        return cartService.addRecipeToCart(cartId, catalog.recipeIds.get(next++ % catalog.recipeIds.size()));
+    }
+
+    @Benchmark
+    public Optional<CartDto> addProductToCart(final Catalog catalog) {
+        return cartService.addProductToCart(cartId, catalog.productIds.get(next++ % catalog.productIds.size()));
+    }
+
+    // cart_items by cart, then the cached products, then the DTO mapping
+    @Benchmark
+    public Optional<CartDto> getCartById(final Catalog catalog) {
+        return cartService.getCartById(catalog.fullCartId);
+    }
+
+    // the batch DTO mapping, one items query and one product lookup for a page of carts
+    @Benchmark
+    public List<CartDto> getCarts() {
+        return cartService.getCarts(0L, 100);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package co.piter.buyrecipes.benchmark;
+
+import co.piter.buyrecipes.entity.Cart;
+import co.piter.buyrecipes.entity.CartItem;
+import co.piter.buyrecipes.entity.Product;
+import co.piter.buyrecipes.entity.Recipe;
+import co.piter.buyrecipes.entity.RecipeIngredient;
+import co.piter.buyrecipes.repo.CartItemRepository;
+import co.piter.buyrecipes.repo.CartRepo;
+import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.repo.RecipeRepo;
+import io.micronaut.context.ApplicationContext;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+// an application context over its own in-memory H2, seeded with a catalog of the parameterized size
+@State(Scope.Benchmark)
+public class Catalog {
+
+    @Param({"100", "10000"})
+    public int productCount;
+
+    @Param({"5", "20"})
+    public int ingredientsPerRecipe;
+
+    @Param({"10", "100"})
+    public int cartSize;
+
+    static final int RECIPE_COUNT = 100;
+
+    ApplicationContext context;
+    List<Long> productIds;
+    List<Long> recipeIds;
+    Long fullCartId; // holds cartSize lines, read only
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = ApplicationContext.builder()
+                .properties(Map.of(
+                        "datasources.default.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "buyrecipes.carts.reconciliation.enabled", "false",
+                        "jpa.default.properties.hibernate.generate_statistics", "true")) // statement counts for InsertBatchingBenchmark
+                .start();
+        final SplittableRandom random = new SplittableRandom(42L); // same catalog on every run
+        productIds = context.getBean(ProductRepo.class)
+                .saveAll(IntStream.range(0, productCount)
+                        .mapToObj(i -> new Product("Product " + i, random.nextInt(50, 550)))
+                        .toList())
+                .stream()
+                .map(product -> requireNonNull(product.getId()))
+                .toList();
+        final RecipeRepo recipeRepo = context.getBean(RecipeRepo.class);
+        final RecipeIngredientRepo recipeIngredientRepo = context.getBean(RecipeIngredientRepo.class);
+        recipeIds = new ArrayList<>(RECIPE_COUNT);
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            final Long recipeId = requireNonNull(recipeRepo.save(new Recipe("Recipe " + i, "")).getId());
+            recipeIngredientRepo.saveAll(random.ints(0, productCount)
+                    .distinct()
+                    .limit(Math.min(ingredientsPerRecipe, productCount))
+                    .mapToObj(p -> new RecipeIngredient(recipeId, productIds.get(p), random.nextInt(1, 4)))
+                    .toList());
+            recipeIds.add(recipeId);
+        }
+        fullCartId = requireNonNull(context.getBean(CartRepo.class).save(new Cart(0)).getId());
+        context.getBean(CartItemRepository.class).saveAll(productIds.stream()
+                .limit(cartSize)
+                .map(productId -> new CartItem(fullCartId, productId))
+                .toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @NotNull Long newCart() {
+        return requireNonNull(context.getBean(CartRepo.class).save(new Cart(0)).getId());
+    }
+}
\ No newline at end of file
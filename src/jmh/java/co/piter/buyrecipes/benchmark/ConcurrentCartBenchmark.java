@@ -0,0 +1,58 @@
+package co.piter.buyrecipes.benchmark;
+
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.UpdateCartRequest;
+import co.piter.buyrecipes.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Optional;
+
+// the scenarios of ConcurrentCartIT under sustained load: shoppers adding the same recipe to their own carts,
+// and writers racing on one cart, where every conflict costs a retry
+public class ConcurrentCartBenchmark {
+
+    // demonstrateSuccessfulConcurrentCartOperations, a cart per thread
+    @State(Scope.Thread)
+    public static class OwnCart {
+
+        Long cartId;
+
+        // renewed per iteration, keeps the total within an int
+        @Setup(Level.Iteration)
+        public void newCart(final Catalog catalog) {
+            cartId = catalog.newCart();
+        }
+    }
+
+    // demonstrateConcurrentCartUpdatesWithOptimisticLocking, one cart for all threads
+    @State(Scope.Benchmark)
+    public static class SharedCart {
+
+        CartService cartService;
+        Long cartId;
+
+        @Setup(Level.Trial)
+        public void setUp(final Catalog catalog) {
+            cartService = catalog.context.getBean(CartService.class);
+            cartId = catalog.newCart();
+        }
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Optional<CartDto> addRecipeToOwnCarts(final Catalog catalog, final SharedCart shared, final OwnCart own) {
+        return shared.cartService.addRecipeToCart(own.cartId, catalog.recipeIds.get(0));
+    }
+
+    // the writers' versions collide, the time includes the retries that resolve them
+    @Benchmark
+    @Threads(10)
+    public Optional<CartDto> updateSharedCart(final SharedCart shared) {
+        return shared.cartService.updateCart(shared.cartId, new UpdateCartRequest(1000));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package co.piter.buyrecipes.benchmark;
+
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.service.CartService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+
+// every line of the recipe is a new cart_items row; the counters show the JDBC statements behind each add,
+// statements / adds is the round-trips per recipe, which sequence ids and hibernate.jdbc.batch_size bring down
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class InsertBatchingBenchmark {
+
+    public long adds;
+    public long statements;
+
+    private CartService cartService;
+    private Statistics statistics;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        cartService = catalog.context.getBean(CartService.class);
+        statistics = catalog.context.getBean(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        adds = 0L;
+        statements = 0L;
+    }
+
+    @Benchmark
+    public Optional<CartDto> addRecipeToNewCart(final Catalog catalog) {
+        final Long cartId = catalog.newCart();
+        final long before = statistics.getPrepareStatementCount();
+        final Optional<CartDto> cart = cartService.addRecipeToCart(cartId, catalog.recipeIds.get(next++ % catalog.recipeIds.size()));
+        statements += statistics.getPrepareStatementCount() - before;
+        adds++;
+        return cart;
+    }
+}
\ No newline at end of file
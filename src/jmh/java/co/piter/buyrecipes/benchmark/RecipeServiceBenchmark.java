@@ -0,0 +1,28 @@
+package co.piter.buyrecipes.benchmark;
+
+import co.piter.buyrecipes.dto.RecipeDto;
+import co.piter.buyrecipes.service.RecipeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+@State(Scope.Thread)
+public class RecipeServiceBenchmark {
+
+    private RecipeService recipeService;
+
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        recipeService = catalog.context.getBean(RecipeService.class);
+    }
+
+    // a page of recipes with their ingredient rows, mapped to DTOs
+    @Benchmark
+    public List<RecipeDto> getRecipes() {
+        return recipeService.getRecipes(0L, Catalog.RECIPE_COUNT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,286 @@
+package co.piter.buyrecipes;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+
+// synthetic catalog of configurable size for benchmarks and load tests, written with plain JDBC batches
+// over one connection in one transaction, Hibernate and the persistence context stay out of the way;
+// a failed run rolls back to empty tables, so DataLoader's "no products yet" check never meets half a catalog;
+// ids are assigned here in contiguous ranges, past the ids already taken and reserved from the tables' sequences
+@Singleton
+public class CatalogGenerator {
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(CatalogGenerator.class);
+
+    private static final @NotNull String[] UNITS = {"pieces", "grams", "cups", "tablespoons", "teaspoons", "ounces"};
+
+    private final @NotNull DataSource dataSource;
+    private final boolean enabled;
+    private final int products;
+    private final int recipes;
+    private final int minIngredientsPerRecipe;
+    private final int maxIngredientsPerRecipe;
+    private final int carts;
+    private final int minItemsPerCart;
+    private final int maxItemsPerCart;
+    private final int batchSize;
+    private final long seed;
+
+    public CatalogGenerator(
+            final @NotNull DataSource dataSource,
+            final @Nullable DataSourceResolver dataSourceResolver,
+            @Value("${buyrecipes.generator.enabled:false}") final boolean enabled,
+            @Value("${buyrecipes.generator.products:100000}") final int products,
+            @Value("${buyrecipes.generator.recipes:10000}") final int recipes,
+            @Value("${buyrecipes.generator.min-ingredients-per-recipe:3}") final int minIngredientsPerRecipe,
+            @Value("${buyrecipes.generator.max-ingredients-per-recipe:15}") final int maxIngredientsPerRecipe,
+            @Value("${buyrecipes.generator.carts:10000}") final int carts,
+            @Value("${buyrecipes.generator.min-items-per-cart:0}") final int minItemsPerCart,
+            @Value("${buyrecipes.generator.max-items-per-cart:30}") final int maxItemsPerCart,
+            @Value("${buyrecipes.generator.batch-size:5000}") final int batchSize,
+            @Value("${buyrecipes.generator.seed:42}") final long seed
+    ) {
+        this.dataSource = pool(requireNonNullElse(dataSourceResolver, DataSourceResolver.DEFAULT).resolve(requireNonNull(dataSource)));
+        this.enabled = enabled;
+        this.products = products;
+        this.recipes = recipes;
+        this.minIngredientsPerRecipe = Math.min(minIngredientsPerRecipe, products);
+        this.maxIngredientsPerRecipe = Math.min(Math.max(minIngredientsPerRecipe, maxIngredientsPerRecipe), products);
+        this.carts = carts;
+        this.minItemsPerCart = Math.min(minItemsPerCart, products);
+        this.maxItemsPerCart = Math.min(Math.max(minItemsPerCart, maxItemsPerCart), products);
+        this.batchSize = Math.max(1, batchSize);
+        this.seed = seed;
+    }
+
+    // the raw pool, beneath the transaction-aware proxy so that the generator commits on its own connection, and
+    // beneath JdbcTracing's wrapper so that its batches are not traced; as DatabaseMetrics finds it
+    private static @NotNull DataSource pool(final @NotNull DataSource resolved) {
+        try {
+            return resolved.isWrapperFor(HikariDataSource.class) ? resolved.unwrap(HikariDataSource.class) : resolved;
+        } catch (final SQLException e) {
+            return resolved;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // expects empty tables, as DataLoader only calls it when there are no products
+    public void generate() {
+        log.info("Generating {} products, {} recipes with {}-{} ingredients and {} carts with {}-{} items",
+                products, recipes, minIngredientsPerRecipe, maxIngredientsPerRecipe, carts, minItemsPerCart, maxItemsPerCart);
+        final long start = System.nanoTime();
+        final SplittableRandom random = new SplittableRandom(seed);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            final long ingredients;
+            final long items;
+            try {
+                final int[] prices = new int[products];
+                final long firstProductId = insertProducts(connection, random, prices);
+                final long firstRecipeId = insertRecipes(connection);
+                ingredients = insertRecipeIngredients(connection, random, firstRecipeId, firstProductId);
+                items = insertCarts(connection, random, firstProductId, prices);
+                connection.commit();
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            log.info("Generated {} products, {} recipes, {} ingredients, {} carts and {} cart items in {} ms",
+                    products, recipes, ingredients, carts, items, (System.nanoTime() - start) / 1_000_000);
+        } catch (final SQLException e) {
+            throw new RuntimeException("Failed to generate the catalog", e);
+        }
+    }
+
+    // returns the id of the first product, the rest follow contiguously
+    private long insertProducts(
+            final @NotNull Connection connection,
+            final @NotNull SplittableRandom random,
+            final int[] prices
+    ) throws SQLException {
+        final long firstId = reserveIds(connection, "products", products);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO products (id, version, name, price_in_cents) VALUES (?, 0, ?, ?)")) {
+            for (int i = 0; i < products; i++) {
+                prices[i] = random.nextInt(50, 5000);
+                insert.setLong(1, firstId + i);
+                insert.setString(2, "Product " + (i + 1));
+                insert.setInt(3, prices[i]);
+                addBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        return firstId;
+    }
+
+    private long insertRecipes(final @NotNull Connection connection) throws SQLException {
+        final long firstId = reserveIds(connection, "recipes", recipes);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO recipes (id, version, name, description) VALUES (?, 0, ?, ?)")) {
+            for (int i = 0; i < recipes; i++) {
+                insert.setLong(1, firstId + i);
+                insert.setString(2, "Recipe " + (i + 1));
+                insert.setString(3, "Generated recipe " + (i + 1));
+                addBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        return firstId;
+    }
+
+    private long insertRecipeIngredients(
+            final @NotNull Connection connection,
+            final @NotNull SplittableRandom random,
+            final long firstRecipeId,
+            final long firstProductId
+    ) throws SQLException {
+        final int[][] recipeProducts = new int[recipes][];
+        long rows = 0L;
+        for (int i = 0; i < recipes; i++) {
+            recipeProducts[i] = distinctProducts(random, minIngredientsPerRecipe, maxIngredientsPerRecipe);
+            rows += recipeProducts[i].length;
+        }
+        final long firstId = reserveIds(connection, "recipe_ingredients", rows);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO recipe_ingredients (id, version, recipe_id, product_id, quantity, unit) VALUES (?, 0, ?, ?, ?, ?)")) {
+            long row = 0L;
+            for (int i = 0; i < recipes; i++) {
+                for (final int product : recipeProducts[i]) {
+                    insert.setLong(1, firstId + row);
+                    insert.setLong(2, firstRecipeId + i);
+                    insert.setLong(3, firstProductId + product);
+                    insert.setInt(4, random.nextInt(1, 5));
+                    insert.setString(5, UNITS[random.nextInt(UNITS.length)]);
+                    addBatch(insert, ++row);
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
+    // carts are inserted with the total of the items they are given, so the reconciliation job finds no drift
+    private long insertCarts(
+            final @NotNull Connection connection,
+            final @NotNull SplittableRandom random,
+            final long firstProductId,
+            final int[] prices
+    ) throws SQLException {
+        final int[][] cartProducts = new int[carts][];
+        final int[][] cartQuantities = new int[carts][];
+        long rows = 0L;
+        final long firstCartId = reserveIds(connection, "carts", carts);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO carts (id, version, total_in_cents) VALUES (?, 0, ?)")) {
+            for (int i = 0; i < carts; i++) {
+                cartProducts[i] = distinctProducts(random, minItemsPerCart, maxItemsPerCart);
+                cartQuantities[i] = new int[cartProducts[i].length];
+                long totalInCents = 0L;
+                for (int j = 0; j < cartProducts[i].length; j++) {
+                    cartQuantities[i][j] = random.nextInt(1, 4);
+                    totalInCents += (long) prices[cartProducts[i][j]] * cartQuantities[i][j];
+                }
+                rows += cartProducts[i].length;
+                insert.setLong(1, firstCartId + i);
+                insert.setInt(2, Math.toIntExact(totalInCents));
+                addBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        final long firstItemId = reserveIds(connection, "cart_items", rows);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO cart_items (id, version, cart_id, product_id, quantity) VALUES (?, 0, ?, ?, ?)")) {
+            long row = 0L;
+            for (int i = 0; i < carts; i++) {
+                for (int j = 0; j < cartProducts[i].length; j++) {
+                    insert.setLong(1, firstItemId + row);
+                    insert.setLong(2, firstCartId + i);
+                    insert.setLong(3, firstProductId + cartProducts[i][j]);
+                    insert.setInt(4, cartQuantities[i][j]);
+                    addBatch(insert, ++row);
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
+    // product indexes skewed towards the start of the catalog, a few staples appear in most recipes and carts
+    private int[] distinctProducts(final @NotNull SplittableRandom random, final int min, final int max) {
+        final int count = min == max ? min : random.nextInt(min, max + 1);
+        final int[] picked = new int[count];
+        int size = 0;
+        while (size < count) {
+            final int candidate = (int) (products * Math.pow(random.nextDouble(), 2.0));
+            boolean seen = false;
+            for (int i = 0; i < size && !seen; i++) {
+                seen = picked[i] == candidate;
+            }
+            if (!seen) {
+                picked[size++] = candidate;
+            }
+        }
+        Arrays.sort(picked);
+        return picked;
+    }
+
+    // ids after the largest in the table and after the sequence's next block, which is taken so no one else is handed
+    // it; the sequence is then moved past the reserved range, only ever forwards, and hibernate carries on from there
+    private static long reserveIds(final @NotNull Connection connection, final @NotNull String table, final long count) throws SQLException {
+        final boolean postgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+        final String sequence = table + "_seq";
+        try (Statement statement = connection.createStatement()) {
+            final long maxId;
+            try (ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                max.next();
+                maxId = max.getLong(1);
+            }
+            final long firstId = Math.max(maxId + 1, nextValue(statement, sequence, postgres));
+            final long next = firstId + count;
+            if (postgres) {
+                statement.execute("SELECT setval('" + sequence + "', GREATEST(nextval('" + sequence + "'), " + next + "), false)");
+            } else if (nextValue(statement, sequence, false) < next) { // H2 has no setval, this runs before any traffic
+                statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+            }
+            return firstId;
+        }
+    }
+
+    private static long nextValue(final @NotNull Statement statement, final @NotNull String sequence, final boolean postgres) throws SQLException {
+        try (ResultSet value = statement.executeQuery(postgres
+                ? "SELECT nextval('" + sequence + "')"
+                : "SELECT NEXT VALUE FOR " + sequence)) {
+            value.next();
+            return value.getLong(1);
+        }
+    }
+
+    // sends every batchSize rows, the transaction stays open until the whole catalog is in
+    private void addBatch(final @NotNull PreparedStatement insert, final long rows) throws SQLException {
+        insert.addBatch();
+        if (rows % batchSize == 0) {
+            insert.executeBatch();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package co.piter.buyrecipes;
+
+import co.piter.buyrecipes.entity.Cart;
+import co.piter.buyrecipes.entity.Product;
+import co.piter.buyrecipes.entity.Recipe;
+import co.piter.buyrecipes.entity.RecipeIngredient;
+import co.piter.buyrecipes.repo.CartRepo;
+import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.repo.RecipeRepo;
+import jakarta.inject.Singleton;
+import jakarta.transaction.Transactional;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+// the sample catalog DataLoader seeds an empty database with
+@Singleton
+public class SampleData {
+
+    private final @NotNull ProductRepo productRepo;
+    private final @NotNull RecipeRepo recipeRepo;
+    private final @NotNull RecipeIngredientRepo recipeIngredientRepo;
+    private final @NotNull CartRepo cartRepo;
+
+    public SampleData(
+            final @NotNull ProductRepo productRepo,
+            final @NotNull RecipeRepo recipeRepo,
+            final @NotNull RecipeIngredientRepo recipeIngredientRepo,
+            final @NotNull CartRepo cartRepo
+    ) {
+        this.productRepo = productRepo;
+        this.recipeRepo = recipeRepo;
+        this.recipeIngredientRepo = recipeIngredientRepo;
+        this.cartRepo = cartRepo;
+    }
+
+    // one transaction for the whole seed rather than one per save
+    @Transactional
+    public void load() {
+        final Product flour = new Product("Flour", 299);
+        final Product sugar = new Product("Sugar", 199);
+        final Product eggs = new Product("Eggs", 349);
+        final Product butter = new Product("Butter", 449);
+        final Product chocolateChips = new Product("Chocolate Chips", 399);
+        final Product vanillaExtract = new Product("Vanilla Extract", 599);
+        final Product bakingPowder = new Product("Baking Powder", 149);
+        final Product salt = new Product("Salt", 99);
+        final Product milk = new Product("Milk", 279);
+        final Product tomatoes = new Product("Tomatoes", 229);
+        final Product cheese = new Product("Cheese", 549);
+        final Product pasta = new Product("Pasta", 159);
+        final Product oliveOil = new Product("Olive Oil", 799);
+        final Product garlic = new Product("Garlic", 89);
+        final Product basil = new Product("Basil", 299);
+        // persist assigns the ids to these instances, the ingredients below read them back
+        productRepo.saveAll(List.of(
+                flour, sugar, eggs, butter, chocolateChips, vanillaExtract, bakingPowder, salt,
+                milk, tomatoes, cheese, pasta, oliveOil, garlic, basil));
+
+        final Recipe cookiesRecipe = new Recipe("Chocolate Chip Cookies", "Classic homemade chocolate chip cookies that everyone loves");
+        final Recipe pancakesRecipe = new Recipe("Pancakes", "Fluffy breakfast pancakes perfect for weekend mornings");
+        final Recipe pastaRecipe = new Recipe("Pasta Marinara", "Simple and delicious pasta with tomato sauce");
+        recipeRepo.saveAll(List.of(cookiesRecipe, pancakesRecipe, pastaRecipe));
+
+        final Long cookiesRecipeId = requireNonNull(cookiesRecipe.getId());
+        final Long pancakesRecipeId = requireNonNull(pancakesRecipe.getId());
+        final Long pastaRecipeId = requireNonNull(pastaRecipe.getId());
+        recipeIngredientRepo.saveAll(List.of(
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(flour.getId()), 2, "cups"),
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(sugar.getId()), 1, "cup"),
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(eggs.getId()), 4, "pieces"),
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(butter.getId()), 1, "cup"),
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(chocolateChips.getId()), 12, "ounces"),
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(vanillaExtract.getId()), 2, "teaspoons"),
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(bakingPowder.getId()), 1, "teaspoon"),
+                new RecipeIngredient(cookiesRecipeId, requireNonNull(salt.getId()), 1, "pinch"),
+
+                new RecipeIngredient(pancakesRecipeId, requireNonNull(flour.getId()), 1, "cup"),
+                new RecipeIngredient(pancakesRecipeId, requireNonNull(sugar.getId()), 3, "tablespoons"),
+                new RecipeIngredient(pancakesRecipeId, requireNonNull(eggs.getId()), 7, "pieces"),
+                new RecipeIngredient(pancakesRecipeId, requireNonNull(butter.getId()), 2, "tablespoons"),
+                new RecipeIngredient(pancakesRecipeId, requireNonNull(milk.getId()), 1, "cup"),
+                new RecipeIngredient(pancakesRecipeId, requireNonNull(bakingPowder.getId()), 1, "teaspoon"),
+                new RecipeIngredient(pancakesRecipeId, requireNonNull(salt.getId()), 1, "pinch"),
+
+                new RecipeIngredient(pastaRecipeId, requireNonNull(pasta.getId()), 1, "pound"),
+                new RecipeIngredient(pastaRecipeId, requireNonNull(tomatoes.getId()), 8, "pieces"),
+                new RecipeIngredient(pastaRecipeId, requireNonNull(cheese.getId()), 6, "ounces"),
+                new RecipeIngredient(pastaRecipeId, requireNonNull(oliveOil.getId()), 1, "cup"),
+                new RecipeIngredient(pastaRecipeId, requireNonNull(garlic.getId()), 2, "cloves"),
+                new RecipeIngredient(pastaRecipeId, requireNonNull(basil.getId()), 1, "bunch"),
+                new RecipeIngredient(pastaRecipeId, requireNonNull(salt.getId()), 1, "to taste")));
+
+        cartRepo.saveAll(List.of(new Cart(0), new Cart(0)));
+    }
+}
\ No newline at end of file
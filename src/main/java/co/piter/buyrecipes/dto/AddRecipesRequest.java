@@ -0,0 +1,46 @@
+package co.piter.buyrecipes.dto;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+
+public class AddRecipesRequest {
+
+    private @Nullable List<Long> recipeIds;
+
+    public AddRecipesRequest() {
+        // used by JSON serdes
+    }
+
+    public AddRecipesRequest(final @NotNull List<Long> recipeIds) {
+        this.recipeIds = requireNonNull(recipeIds);
+    }
+
+    public @NotNull List<Long> getRecipeIds() {
+        return requireNonNullElse(recipeIds, List.of());
+    }
+
+    public void setRecipeIds(final @Nullable List<Long> recipeIds) {
+        this.recipeIds = requireNonNullElse(recipeIds, List.of());
+    }
+
+    @Override
+    public final boolean equals(final @Nullable Object o) {
+        return o instanceof AddRecipesRequest that && Objects.equals(recipeIds, that.recipeIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(recipeIds);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "AddRecipesRequest{recipeIds=" + recipeIds + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package co.piter.buyrecipes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+@Schema(name = "ExecutorStats", description = "Blocking executor load, counters are cumulative since startup")
+public class ExecutorStatsDto {
+
+    @Schema(description = "Whether requests run on virtual threads rather than a bounded pool", example = "false")
+    private boolean virtualThreads;
+
+    @Schema(description = "Requests waiting for a thread right now", example = "0")
+    private int queued;
+
+    @Schema(description = "Most requests ever waiting for a thread at once", example = "12")
+    private long maxQueued;
+
+    @Schema(description = "Requests running right now", example = "4")
+    private int active;
+
+    @Schema(description = "Requests that got a thread", example = "10000")
+    private long started;
+
+    @Schema(description = "Mean time requests waited for a thread, in milliseconds", example = "0.05")
+    private double meanWaitMillis;
+
+    @Schema(description = "Longest time a request waited for a thread, in milliseconds", example = "8.2")
+    private double maxWaitMillis;
+
+    public ExecutorStatsDto() {
+        // used by JSON serdes
+    }
+
+    public ExecutorStatsDto(
+            final boolean virtualThreads,
+            final int queued,
+            final long maxQueued,
+            final int active,
+            final long started,
+            final double meanWaitMillis,
+            final double maxWaitMillis) {
+        this.virtualThreads = virtualThreads;
+        this.queued = queued;
+        this.maxQueued = maxQueued;
+        this.active = active;
+        this.started = started;
+        this.meanWaitMillis = meanWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(final boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(final int queued) {
+        this.queued = queued;
+    }
+
+    public long getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(final long maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public void setActive(final int active) {
+        this.active = active;
+    }
+
+    public long getStarted() {
+        return started;
+    }
+
+    public void setStarted(final long started) {
+        this.started = started;
+    }
+
+    public double getMeanWaitMillis() {
+        return meanWaitMillis;
+    }
+
+    public void setMeanWaitMillis(final double meanWaitMillis) {
+        this.meanWaitMillis = meanWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(final double maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Override
+    public final boolean equals(final @Nullable Object o) {
+        return o instanceof ExecutorStatsDto that
+                && virtualThreads == that.virtualThreads
+                && queued == that.queued
+                && maxQueued == that.maxQueued
+                && active == that.active
+                && started == that.started
+                && Double.compare(meanWaitMillis, that.meanWaitMillis) == 0
+                && Double.compare(maxWaitMillis, that.maxWaitMillis) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Boolean.hashCode(virtualThreads);
+        result = 31 * result + queued;
+        result = 31 * result + Long.hashCode(maxQueued);
+        result = 31 * result + active;
+        result = 31 * result + Long.hashCode(started);
+        result = 31 * result + Double.hashCode(meanWaitMillis);
+        result = 31 * result + Double.hashCode(maxWaitMillis);
+        return result;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "ExecutorStatsDto{virtualThreads=" + virtualThreads + ", queued=" + queued + ", maxQueued=" + maxQueued
+                + ", active=" + active + ", started=" + started + ", meanWaitMillis=" + meanWaitMillis
+                + ", maxWaitMillis=" + maxWaitMillis + '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package co.piter.buyrecipes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+@Schema(name = "ProductCacheStats", description = "Product cache counters, cumulative since startup")
+public class ProductCacheStatsDto {
+
+    @Schema(description = "Approximate number of cached products", example = "120")
+    private long size;
+
+    @Schema(description = "Lookups served from the cache", example = "9500")
+    private long hitCount;
+
+    @Schema(description = "Lookups that went to the database", example = "500")
+    private long missCount;
+
+    @Schema(description = "Hits over lookups, 1.0 when there were no lookups", example = "0.95")
+    private double hitRate;
+
+    @Schema(description = "Entries dropped for size or expiry", example = "3")
+    private long evictionCount;
+
+    public ProductCacheStatsDto() {
+        // used by JSON serdes
+    }
+
+    public ProductCacheStatsDto(
+            final long size,
+            final long hitCount,
+            final long missCount,
+            final double hitRate,
+            final long evictionCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(final long size) {
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(final long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(final long missCount) {
+        this.missCount = missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(final double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(final long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    @Override
+    public final boolean equals(final @Nullable Object o) {
+        return o instanceof ProductCacheStatsDto that
+                && size == that.size
+                && hitCount == that.hitCount
+                && missCount == that.missCount
+                && Double.compare(hitRate, that.hitRate) == 0
+                && evictionCount == that.evictionCount;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(size);
+        result = 31 * result + Long.hashCode(hitCount);
+        result = 31 * result + Long.hashCode(missCount);
+        result = 31 * result + Double.hashCode(hitRate);
+        result = 31 * result + Long.hashCode(evictionCount);
+        return result;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "ProductCacheStatsDto{size=" + size + ", hitCount=" + hitCount + ", missCount=" + missCount
+                + ", hitRate=" + hitRate + ", evictionCount=" + evictionCount + '}';
+    }
+}
\ No newline at end of file
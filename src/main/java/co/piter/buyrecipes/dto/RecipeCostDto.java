@@ -0,0 +1,78 @@
+package co.piter.buyrecipes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+
+@Schema(name = "RecipeCost", description = "Cost of a recipe's ingredients")
+public class RecipeCostDto {
+
+    @Schema(description = "Identifier of the recipe", example = "1")
+    private @Nullable Long recipeId;
+
+    @Schema(description = "Sum of the ingredient prices, one unit each", example = "1646", minimum = "0")
+    private @Nullable Long costInCents;
+
+    @Schema(description = "Sum of each ingredient price times its quantity, as added to a cart", example = "2244", minimum = "0")
+    private @Nullable Long weightedCostInCents;
+
+    public RecipeCostDto() {
+        // used by JSON serdes
+    }
+
+    public RecipeCostDto(
+            final @NotNull Long recipeId,
+            final @NotNull Long costInCents,
+            final @NotNull Long weightedCostInCents) {
+        this.recipeId = requireNonNull(recipeId);
+        this.costInCents = requireNonNull(costInCents);
+        this.weightedCostInCents = requireNonNull(weightedCostInCents);
+    }
+
+    public @NotNull Long getRecipeId() {
+        return requireNonNull(recipeId);
+    }
+
+    public void setRecipeId(final @NotNull Long recipeId) {
+        this.recipeId = requireNonNull(recipeId);
+    }
+
+    public @NotNull Long getCostInCents() {
+        return requireNonNullElse(costInCents, 0L);
+    }
+
+    public void setCostInCents(final @Nullable Long costInCents) {
+        this.costInCents = requireNonNullElse(costInCents, 0L);
+    }
+
+    public @NotNull Long getWeightedCostInCents() {
+        return requireNonNullElse(weightedCostInCents, 0L);
+    }
+
+    public void setWeightedCostInCents(final @Nullable Long weightedCostInCents) {
+        this.weightedCostInCents = requireNonNullElse(weightedCostInCents, 0L);
+    }
+
+    @Override
+    public final boolean equals(final @Nullable Object o) {
+        return o instanceof RecipeCostDto that
+                && Objects.equals(recipeId, that.recipeId)
+                && Objects.equals(costInCents, that.costInCents)
+                && Objects.equals(weightedCostInCents, that.weightedCostInCents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipeId, costInCents, weightedCostInCents);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "RecipeCostDto{recipeId=" + recipeId + ", costInCents=" + costInCents + ", weightedCostInCents=" + weightedCostInCents + '}';
+    }
+}
\ No newline at end of file
@@ -12,8 +12,9 @@ import static java.util.Objects.requireNonNullElse;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private @Nullable Long id; // PK auto-generated
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_seq", allocationSize = 50)
+    private @Nullable Long id; // PK, 50 ids per sequence round-trip so inserts can be batched
 
     @Version
     private @Nullable Long version; // lock optimisation
@@ -1,22 +1,40 @@
 package co.piter.buyrecipes.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
 
+// one line per product in a cart, adding the product again raises the quantity
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cart_items_cart_product", columnNames = {"cart_id", "product_id"}), // also serves cart_id alone
+        indexes = @Index(name = "idx_cart_items_product", columnList = "product_id"))
 public class CartItem {
 
+    public static final @NotNull Integer DEFAULT_QUANTITY = 1;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private @Nullable Long id; // PK auto-generated
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq", allocationSize = 50)
+    private @Nullable Long id; // PK, 50 ids per sequence round-trip so inserts can be batched
+
+    @Version
+    private @Nullable Long version; // optimistic locking, concurrent adds to the same line
 
+    @Column(name = "cart_id")
     private @Nullable Long cartId; // FK to cart
+
+    @Column(name = "product_id")
     private @Nullable Long productId; // FK to product
 
+    @Column(nullable = false)
+    @ColumnDefault("1") // rows from before quantities were tracked are one unit each
+    private @Nullable Integer quantity;
+
     public CartItem() {
         // used by Hibernate serdes
     }
@@ -24,9 +42,18 @@ public class CartItem {
     public CartItem(
             final @NotNull Long cartId,
             final @NotNull Long productId
+    ) {
+        this(cartId, productId, DEFAULT_QUANTITY);
+    }
+
+    public CartItem(
+            final @NotNull Long cartId,
+            final @NotNull Long productId,
+            final @Nullable Integer quantity
     ) {
         this.cartId = requireNonNull(cartId);
         this.productId = requireNonNull(productId);
+        this.quantity = requireNonNullElse(quantity, DEFAULT_QUANTITY);
     }
 
     public @Nullable Long getId() {
@@ -37,6 +64,14 @@ public class CartItem {
         this.id = requireNonNull(id);
     }
 
+    public @Nullable Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(final @Nullable Long version) {
+        this.version = version;
+    }
+
     public @NotNull Long getCartId() {
         return requireNonNull(cartId);
     }
@@ -53,8 +88,16 @@ public class CartItem {
         this.productId = requireNonNull(productId);
     }
 
+    public @NotNull Integer getQuantity() {
+        return requireNonNullElse(quantity, DEFAULT_QUANTITY);
+    }
+
+    public void setQuantity(final @Nullable Integer quantity) {
+        this.quantity = requireNonNullElse(quantity, DEFAULT_QUANTITY);
+    }
+
     @Override
     public @NotNull String toString() {
-        return "CartItem{id=" + id + ", cartId=" + cartId + ", productId=" + productId + '}';
+        return "CartItem{id=" + id + ", version=" + version + ", cartId=" + cartId + ", productId=" + productId + ", quantity=" + quantity + '}';
     }
 }
\ No newline at end of file
@@ -13,8 +13,9 @@ import static java.util.Objects.requireNonNullElse;
 public class Recipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private @Nullable Long id; // PK auto-generated
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_seq")
+    @SequenceGenerator(name = "recipes_seq", sequenceName = "recipes_seq", allocationSize = 50)
+    private @Nullable Long id; // PK, 50 ids per sequence round-trip so inserts can be batched
 
     @Version
     private @Nullable Long version; // optimistic locking
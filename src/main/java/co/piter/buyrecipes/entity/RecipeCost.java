@@ -0,0 +1,62 @@
+package co.piter.buyrecipes.entity;
+
+import jakarta.persistence.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+
+// precomputed cost of a recipe, kept up to date by RecipeCostService as prices and ingredients change
+@Entity
+@Table(name = "recipe_costs")
+public class RecipeCost {
+
+    @Id
+    private @Nullable Long recipeId; // PK, same as the recipe's
+
+    private @Nullable Long costInCents; // one unit of each ingredient
+    private @Nullable Long weightedCostInCents; // each ingredient's price times its quantity, what adding the recipe to a cart costs
+
+    public RecipeCost() {
+        // used by Hibernate serdes
+    }
+
+    public RecipeCost(
+            final @NotNull Long recipeId,
+            final @Nullable Long costInCents,
+            final @Nullable Long weightedCostInCents) {
+        this.recipeId = requireNonNull(recipeId);
+        this.costInCents = requireNonNullElse(costInCents, 0L);
+        this.weightedCostInCents = requireNonNullElse(weightedCostInCents, 0L);
+    }
+
+    public @Nullable Long getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(final @NotNull Long recipeId) {
+        this.recipeId = requireNonNull(recipeId);
+    }
+
+    public @NotNull Long getCostInCents() {
+        return requireNonNullElse(costInCents, 0L);
+    }
+
+    public void setCostInCents(final @Nullable Long costInCents) {
+        this.costInCents = requireNonNullElse(costInCents, 0L);
+    }
+
+    public @NotNull Long getWeightedCostInCents() {
+        return requireNonNullElse(weightedCostInCents, 0L);
+    }
+
+    public void setWeightedCostInCents(final @Nullable Long weightedCostInCents) {
+        this.weightedCostInCents = requireNonNullElse(weightedCostInCents, 0L);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "RecipeCost{recipeId=" + recipeId + ", costInCents=" + costInCents + ", weightedCostInCents=" + weightedCostInCents + '}';
+    }
+}
\ No newline at end of file
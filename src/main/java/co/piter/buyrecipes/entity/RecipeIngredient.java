@@ -8,20 +8,27 @@ import static java.util.Objects.requireNonNull;
 import static java.util.Objects.requireNonNullElse;
 
 @Entity
-@Table(name = "recipe_ingredients")
+@Table(name = "recipe_ingredients", indexes = {
+        @Index(name = "idx_recipe_ingredients_recipe", columnList = "recipe_id"),
+        @Index(name = "idx_recipe_ingredients_product", columnList = "product_id")
+})
 public class RecipeIngredient {
 
     public static final @NotNull Integer DEFAULT_QUANTITY = 1;
     public static final @NotNull String DEFAULT_UNIT = "";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private @Nullable Long id; // PK auto-generated
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_ingredients_seq")
+    @SequenceGenerator(name = "recipe_ingredients_seq", sequenceName = "recipe_ingredients_seq", allocationSize = 50)
+    private @Nullable Long id; // PK, 50 ids per sequence round-trip so inserts can be batched
 
     @Version
     private @Nullable Long version; // optimistic locking
 
+    @Column(name = "recipe_id")
     private @Nullable Long recipeId; // FK to recipe
+
+    @Column(name = "product_id")
     private @Nullable Long productId; // FK to product
     private @Nullable Integer quantity;
 
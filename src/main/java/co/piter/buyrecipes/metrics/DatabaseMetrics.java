@@ -0,0 +1,104 @@
+package co.piter.buyrecipes.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+
+// connection pool saturation and the Hibernate statistics counters (hibernate.generate_statistics),
+// buyrecipes.db.pool.pending above zero means requests are queueing for a connection
+@Singleton
+class DatabaseMetrics implements MeterBinder {
+
+    private final @NotNull DataSource dataSource;
+    private final @NotNull EntityManagerFactory entityManagerFactory;
+
+    DatabaseMetrics(
+            final @NotNull DataSource dataSource,
+            final @Nullable DataSourceResolver dataSourceResolver,
+            final @NotNull EntityManagerFactory entityManagerFactory
+    ) {
+        this.dataSource = requireNonNullElse(dataSourceResolver, DataSourceResolver.DEFAULT).resolve(requireNonNull(dataSource));
+        this.entityManagerFactory = requireNonNull(entityManagerFactory);
+    }
+
+    @Override
+    public void bindTo(final @NotNull MeterRegistry registry) {
+        final HikariDataSource hikari = hikari(dataSource);
+        if (hikari != null) {
+            pool(registry, hikari, "active", "Connections in use", HikariPoolMXBean::getActiveConnections);
+            pool(registry, hikari, "idle", "Connections ready to be used", HikariPoolMXBean::getIdleConnections);
+            pool(registry, hikari, "pending", "Threads waiting for a connection", HikariPoolMXBean::getThreadsAwaitingConnection);
+            Gauge.builder("buyrecipes.db.pool.max", hikari, HikariDataSource::getMaximumPoolSize)
+                    .description("Maximum pool size")
+                    .register(registry);
+        }
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        hibernate(registry, statistics, "statements", "JDBC statements prepared", Statistics::getPrepareStatementCount);
+        hibernate(registry, statistics, "queries", "HQL and native queries executed", Statistics::getQueryExecutionCount);
+        hibernate(registry, statistics, "entity.loads", "Entities loaded", Statistics::getEntityLoadCount);
+        hibernate(registry, statistics, "entity.fetches", "Entities fetched lazily", Statistics::getEntityFetchCount);
+        hibernate(registry, statistics, "collection.fetches", "Collections fetched lazily", Statistics::getCollectionFetchCount);
+        hibernate(registry, statistics, "entity.inserts", "Entities inserted", Statistics::getEntityInsertCount);
+        hibernate(registry, statistics, "entity.updates", "Entities updated", Statistics::getEntityUpdateCount);
+        hibernate(registry, statistics, "optimistic.failures", "Optimistic lock failures", Statistics::getOptimisticFailureCount);
+        hibernate(registry, statistics, "transactions", "Transactions completed", Statistics::getTransactionCount);
+        Gauge.builder("buyrecipes.hibernate.query.max.time", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query so far, in milliseconds")
+                .register(registry);
+    }
+
+    // the pool may sit behind a wrapper, such as the one JdbcTracing adds
+    private static @Nullable HikariDataSource hikari(final @NotNull DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (final SQLException e) {
+            return null;
+        }
+    }
+
+    // the pool is created on first use, until then the gauges read zero
+    private static void pool(
+            final @NotNull MeterRegistry registry,
+            final @NotNull HikariDataSource hikari,
+            final @NotNull String name,
+            final @NotNull String description,
+            final @NotNull ToDoubleFunction<HikariPoolMXBean> value
+    ) {
+        Gauge.builder("buyrecipes.db.pool." + name, hikari, source -> {
+                    final HikariPoolMXBean pool = source.getHikariPoolMXBean();
+                    return pool == null ? 0.0 : value.applyAsDouble(pool);
+                })
+                .description(description)
+                .register(registry);
+    }
+
+    private static void hibernate(
+            final @NotNull MeterRegistry registry,
+            final @NotNull Statistics statistics,
+            final @NotNull String name,
+            final @NotNull String description,
+            final @NotNull ToLongFunction<Statistics> count
+    ) {
+        FunctionCounter.builder("buyrecipes.hibernate." + name, statistics, s -> count.applyAsLong(s))
+                .description(description)
+                .register(registry);
+    }
+}
\ No newline at end of file
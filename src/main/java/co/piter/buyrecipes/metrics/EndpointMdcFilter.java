@@ -0,0 +1,31 @@
+package co.piter.buyrecipes.metrics;
+
+import io.micronaut.context.propagation.slf4j.MdcPropagationContext;
+import io.micronaut.core.propagation.PropagatedContext;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.jetbrains.annotations.NotNull;
+import org.reactivestreams.Publisher;
+
+import java.util.Map;
+
+// puts the request's method and path in the MDC as "endpoint" for every route, so Hibernate's slow query log
+// (org.hibernate.SQL_SLOW) and the rest say which request they were for; propagated, so it follows the request
+// onto the blocking executor and across reactive operators
+@Filter(Filter.MATCH_ALL_PATTERN)
+public class EndpointMdcFilter implements HttpServerFilter {
+
+    static final String ENDPOINT_MDC_KEY = "endpoint";
+
+    @Override
+    public @NotNull Publisher<MutableHttpResponse<?>> doFilter(final @NotNull HttpRequest<?> request, final @NotNull ServerFilterChain chain) {
+        try (PropagatedContext.Scope ignored = PropagatedContext.getOrEmpty()
+                .plus(new MdcPropagationContext(Map.of(ENDPOINT_MDC_KEY, request.getMethodName() + " " + request.getPath())))
+                .propagate()) {
+            return chain.proceed(request);
+        }
+    }
+}
\ No newline at end of file
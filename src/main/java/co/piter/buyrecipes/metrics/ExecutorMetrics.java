@@ -0,0 +1,40 @@
+package co.piter.buyrecipes.metrics;
+
+import co.piter.buyrecipes.rest.BlockingExecutor;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+// the counters behind GET /executor/stats
+@Singleton
+class ExecutorMetrics implements MeterBinder {
+
+    private final @NotNull BlockingExecutor blockingExecutor;
+
+    ExecutorMetrics(final @NotNull BlockingExecutor blockingExecutor) {
+        this.blockingExecutor = requireNonNull(blockingExecutor);
+    }
+
+    @Override
+    public void bindTo(final @NotNull MeterRegistry registry) {
+        Gauge.builder("buyrecipes.executor.queued", blockingExecutor, executor -> executor.getStats().getQueued())
+                .description("Requests waiting for a thread")
+                .register(registry);
+        Gauge.builder("buyrecipes.executor.active", blockingExecutor, executor -> executor.getStats().getActive())
+                .description("Requests running")
+                .register(registry);
+        FunctionTimer.builder("buyrecipes.executor.wait", blockingExecutor,
+                        executor -> executor.getStats().getStarted(),
+                        executor -> executor.getStats().getMeanWaitMillis() * executor.getStats().getStarted(),
+                        TimeUnit.MILLISECONDS)
+                .description("Time requests waited for a thread")
+                .register(registry);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package co.piter.buyrecipes.metrics;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// times each call of the annotated bean's methods and counts the SQL statements it issued, see MeasuredInterceptor
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface Measured {
+}
\ No newline at end of file
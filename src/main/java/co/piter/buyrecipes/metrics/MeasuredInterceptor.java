@@ -0,0 +1,59 @@
+package co.piter.buyrecipes.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+
+import static java.util.Objects.requireNonNull;
+
+// buyrecipes.method: latency histogram per class and method, tagged with the exception when one escapes;
+// buyrecipes.sql.statements: statements prepared during the call, nested calls are included in the caller's
+@Singleton
+@InterceptorBean(Measured.class)
+class MeasuredInterceptor implements MethodInterceptor<Object, Object> {
+
+    private final @NotNull MeterRegistry meterRegistry;
+
+    MeasuredInterceptor(final @NotNull MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry);
+    }
+
+    @Override
+    public @Nullable Object intercept(final @NotNull MethodInvocationContext<Object, Object> context) {
+        if (Publisher.class.isAssignableFrom(context.getReturnType().getType())) {
+            return context.proceed(); // the work happens on subscription, after the call returns
+        }
+        final long statementsBefore = StatementCounter.current();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return context.proceed();
+        } catch (final RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            final Tags tags = Tags.of(
+                    "class", context.getDeclaringType().getSimpleName(),
+                    "method", context.getMethodName());
+            sample.stop(Timer.builder("buyrecipes.method")
+                    .tags(tags)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            DistributionSummary.builder("buyrecipes.sql.statements")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0) // anything near it is an N+1 already
+                    .register(meterRegistry)
+                    .record(StatementCounter.current() - statementsBefore);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package co.piter.buyrecipes.metrics;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// holds each call of the annotated controller to buyrecipes.query-budget.max-statements, see QueryBudgetInterceptor
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface QueryBudget {
+}
\ No newline at end of file
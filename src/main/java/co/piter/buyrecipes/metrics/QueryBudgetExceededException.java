@@ -0,0 +1,10 @@
+package co.piter.buyrecipes.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(final @NotNull String message) {
+        super(message);
+    }
+}
\ No newline at end of file
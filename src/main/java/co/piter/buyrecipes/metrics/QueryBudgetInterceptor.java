@@ -0,0 +1,91 @@
+package co.piter.buyrecipes.metrics;
+
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.context.ServerRequestContext;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+// with a budget, counts the statements the call issued and warns or fails when there are more, listing the most
+// repeated ones, which is where an N+1 shows; failing stops the call at the first statement over the budget, inside
+// its transaction, which then rolls back instead of committing. The budget is per attempt of a @RetryOnConflict call
+@Singleton
+@InterceptorBean(QueryBudget.class)
+class QueryBudgetInterceptor implements MethodInterceptor<Object, Object> {
+
+    enum Mode {NONE, WARN, FAIL}
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+    private static final int REPORTED_STATEMENTS = 5;
+
+    private final @NotNull Mode mode;
+    private final int maxStatements;
+
+    QueryBudgetInterceptor(
+            @Value("${buyrecipes.query-budget.mode:none}") final @NotNull String mode,
+            @Value("${buyrecipes.query-budget.max-statements:20}") final int maxStatements
+    ) {
+        this.mode = Mode.valueOf(requireNonNull(mode).toUpperCase(Locale.ROOT));
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    public @Nullable Object intercept(final @NotNull MethodInvocationContext<Object, Object> context) {
+        if (mode == Mode.NONE || Publisher.class.isAssignableFrom(context.getReturnType().getType())) {
+            return context.proceed(); // reactive statements run on subscription, after the call returns
+        }
+        StatementCounter.startRecording(mode == Mode.FAIL ? maxStatements : Long.MAX_VALUE);
+        @Nullable Object result = null;
+        @Nullable RuntimeException failure = null;
+        final List<String> statements;
+        try {
+            result = context.proceed();
+        } catch (final RuntimeException e) {
+            failure = e;
+        } finally {
+            statements = StatementCounter.stopRecording();
+        }
+        final long issued = statements.size(); // by the last attempt when RetryOnConflict ran the call again
+        if (issued > maxStatements) {
+            final String endpoint = ServerRequestContext.currentRequest()
+                    .map(request -> request.getMethodName() + " " + request.getPath())
+                    .orElseGet(() -> context.getDeclaringType().getSimpleName() + "." + context.getMethodName());
+            final String message = String.format("%s issued %d SQL statements, over the budget of %d; most repeated:%n%s",
+                    endpoint, issued, maxStatements, mostRepeated(statements));
+            if (mode == Mode.FAIL) {
+                throw new QueryBudgetExceededException(message); // the statement over the budget threw, nothing was committed
+            }
+            log.warn(message);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
+    }
+
+    private static @NotNull String mostRepeated(final @NotNull List<String> statements) {
+        return statements.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(REPORTED_STATEMENTS)
+                .map(entry -> "  " + entry.getValue() + " x " + entry.getKey())
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package co.piter.buyrecipes.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// hibernate.session_factory.statement_inspector, sees every statement Hibernate prepares; the count is per thread,
+// the blocking controllers run a request start to end on one thread so a difference of two reads is the request's
+public class StatementCounter implements StatementInspector {
+
+    private static final @NotNull ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final @NotNull ThreadLocal<Recording> RECORDING = new ThreadLocal<>();
+
+    private record Recording(@NotNull List<String> statements, long failAbove) {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    // keeps the text of this thread's statements until stopRecording, for QueryBudgetInterceptor's report;
+    // the statement past failAbove throws while it is prepared, so the transaction it belongs to rolls back
+    static void startRecording(final long failAbove) {
+        RECORDING.set(new Recording(new ArrayList<>(), failAbove));
+    }
+
+    // a retried attempt starts over with the whole budget, the budget bounds what one run of the call issues and
+    // the statements of an attempt that lost a conflict were rolled back with it
+    public static void restartRecording() {
+        final @Nullable Recording recorded = RECORDING.get();
+        if (recorded != null) {
+            recorded.statements().clear();
+        }
+    }
+
+    static @NotNull List<String> stopRecording() {
+        final Recording recorded = RECORDING.get();
+        RECORDING.remove();
+        return recorded == null ? List.of() : recorded.statements();
+    }
+
+    @Override
+    public @NotNull String inspect(final @NotNull String sql) {
+        COUNT.get()[0]++;
+        final @Nullable Recording recorded = RECORDING.get();
+        if (recorded != null) {
+            recorded.statements().add(sql);
+            if (recorded.statements().size() > recorded.failAbove()) {
+                throw new QueryBudgetExceededException("Over the budget of " + recorded.failAbove() + " SQL statements at: " + sql);
+            }
+        }
+        return sql;
+    }
+}
\ No newline at end of file
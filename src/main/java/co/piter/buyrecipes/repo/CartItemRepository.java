@@ -1,14 +1,18 @@
 package co.piter.buyrecipes.repo;
 
 import co.piter.buyrecipes.entity.CartItem;
+import co.piter.buyrecipes.tracing.Traced;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
+@Traced
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     // JpaRepository provides:
     // - save(Cart cart): create/update a cart
@@ -19,5 +23,44 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
     @Nullable List<CartItem> findByCartId(final @NotNull Long cartId);
 
+    @NotNull List<CartItem> findByCartIdInOrderById(final @NotNull Collection<Long> cartIds);
+
     @Nullable CartItem findByCartIdAndProductId(final @NotNull Long cartId, final @NotNull Long productId);
+
+    @NotNull List<CartItem> findByCartIdAndProductIdIn(final @NotNull Long cartId, final @NotNull Collection<Long> productIds);
+
+    long deleteByCartId(final @NotNull Long cartId);
+
+    long deleteByProductId(final @NotNull Long productId);
+
+    // what removing the recipe takes out of the cart total: each of its products' price times the units removed, the
+    // recipe's quantity or, when the line holds fewer, the whole line; read before subtractRecipeQuantities
+    @Query("""
+            SELECT COALESCE(SUM(p.priceInCents * LEAST(ci.quantity, (
+                    SELECT SUM(ri.quantity) FROM RecipeIngredient ri
+                    WHERE ri.recipeId = :recipeId AND ri.productId = ci.productId))), 0)
+            FROM CartItem ci, Product p
+            WHERE ci.productId = p.id
+              AND ci.cartId = :cartId
+              AND ci.productId IN (SELECT ri.productId FROM RecipeIngredient ri WHERE ri.recipeId = :recipeId)""")
+    long sumRecipePriceInCentsByCartId(final @NotNull Long cartId, final @NotNull Long recipeId);
+
+    // takes the recipe's units off the cart's lines in one statement, as many as add_recipe put there; units added
+    // with add_product or by another recipe stay, the lines left without units go with deleteEmptyLinesByCartId
+    @Query("""
+            UPDATE CartItem ci
+            SET ci.quantity = ci.quantity - (
+                    SELECT SUM(ri.quantity) FROM RecipeIngredient ri
+                    WHERE ri.recipeId = :recipeId AND ri.productId = ci.productId),
+                ci.version = ci.version + 1
+            WHERE ci.cartId = :cartId
+              AND ci.productId IN (SELECT ri.productId FROM RecipeIngredient ri WHERE ri.recipeId = :recipeId)""")
+    int subtractRecipeQuantities(final @NotNull Long cartId, final @NotNull Long recipeId);
+
+    @Query("DELETE FROM CartItem ci WHERE ci.cartId = :cartId AND ci.quantity <= 0")
+    int deleteEmptyLinesByCartId(final @NotNull Long cartId);
+
+    // cart total computed in one round-trip: each line's product price times its quantity
+    @Query("SELECT COALESCE(SUM(p.priceInCents * ci.quantity), 0) FROM CartItem ci, Product p WHERE ci.productId = p.id AND ci.cartId = :cartId")
+    long sumPriceInCentsByCartId(final @NotNull Long cartId);
 }
\ No newline at end of file
@@ -1,10 +1,17 @@
 package co.piter.buyrecipes.repo;
 
 import co.piter.buyrecipes.entity.Cart;
+import co.piter.buyrecipes.tracing.Traced;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.data.model.Pageable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
 
 @Repository
+@Traced
 public interface CartRepo extends JpaRepository<Cart, Long> {
     // JpaRepository provides:
     // - save(Cart cart): create/update a cart
@@ -12,4 +19,37 @@ public interface CartRepo extends JpaRepository<Cart, Long> {
     // - findAll(): get all carts
     // - deleteById(Long id): delete a cart by ID
     // - existsById(Long id): check if a cart exists by ID
+
+    // carts whose incrementally maintained total no longer matches the cart_items/products join
+    @Query("""
+            SELECT c.id AS cartId, COALESCE(c.totalInCents, 0) AS totalInCents, COALESCE(SUM(p.priceInCents * ci.quantity), 0) AS itemsTotalInCents
+            FROM Cart c
+            LEFT JOIN CartItem ci ON ci.cartId = c.id
+            LEFT JOIN Product p ON p.id = ci.productId
+            GROUP BY c.id, c.totalInCents
+            HAVING COALESCE(c.totalInCents, 0) <> COALESCE(SUM(p.priceInCents * ci.quantity), 0)""")
+    @NotNull List<CartTotalDrift> findTotalDrifts();
+
+    // takes a product's lines out of every cart total in one statement, bumping the version like an entity update would;
+    // never below zero, as CartService.adjustCartTotal, a drifted total is fixed by the reconciliation job
+    @Query("""
+            UPDATE Cart c
+            SET c.totalInCents = GREATEST(c.totalInCents - :priceInCents * (
+                    SELECT SUM(ci.quantity) FROM CartItem ci
+                    WHERE ci.cartId = c.id AND ci.productId = :productId), 0),
+                c.version = c.version + 1
+            WHERE c.id IN (SELECT ci.cartId FROM CartItem ci WHERE ci.productId = :productId)""")
+    int updateTotalsRemovingProduct(final @NotNull Long productId, final int priceInCents);
+
+    // reprices a product's lines in every cart total in one statement, as updateTotalsRemovingProduct
+    @Query("""
+            UPDATE Cart c
+            SET c.totalInCents = GREATEST(c.totalInCents + :deltaInCents * (
+                    SELECT SUM(ci.quantity) FROM CartItem ci
+                    WHERE ci.cartId = c.id AND ci.productId = :productId), 0),
+                c.version = c.version + 1
+            WHERE c.id IN (SELECT ci.cartId FROM CartItem ci WHERE ci.productId = :productId)""")
+    int updateTotalsRepricingProduct(final @NotNull Long productId, final int deltaInCents);
+
+    @NotNull List<Cart> findByIdGreaterThan(final @NotNull Long id, final @NotNull Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package co.piter.buyrecipes.repo;
+
+import io.micronaut.core.annotation.Introspected;
+import org.jetbrains.annotations.NotNull;
+
+@Introspected
+public record CartTotalDrift(
+        @NotNull Long cartId,
+        @NotNull Integer totalInCents, // as stored in the cart
+        @NotNull Long itemsTotalInCents // as summed from the cart's items
+) {
+}
\ No newline at end of file
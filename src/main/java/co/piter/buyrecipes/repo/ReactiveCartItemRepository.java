@@ -0,0 +1,35 @@
+package co.piter.buyrecipes.repo;
+
+import co.piter.buyrecipes.entity.CartItem;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.reactive.ReactorCrudRepository;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// R2DBC twin of CartItemRepository, one variant per dialect as ReactiveCartRepo
+public interface ReactiveCartItemRepository extends ReactorCrudRepository<CartItem, Long> {
+
+    @NotNull Flux<CartItem> findByCartIdInOrderById(final @NotNull Collection<Long> cartIds);
+
+    @NotNull Mono<CartItem> findByCartIdAndProductId(final @NotNull Long cartId, final @NotNull Long productId);
+
+    @NotNull Flux<CartItem> findByCartIdAndProductIdIn(final @NotNull Long cartId, final @NotNull Collection<Long> productIds);
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.H2)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", notEquals = "POSTGRES")
+    interface H2 extends ReactiveCartItemRepository {
+    }
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.POSTGRES)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", value = "POSTGRES")
+    interface Postgres extends ReactiveCartItemRepository {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package co.piter.buyrecipes.repo;
+
+import co.piter.buyrecipes.entity.Cart;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.reactive.ReactorCrudRepository;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+
+// R2DBC twin of CartRepo, save inserts and update checks the version. Micronaut Data writes the SQL at compile time
+// for the dialect of the repository, so each reactive repository has an H2 and a POSTGRES variant, the one matching
+// r2dbc.datasources.reactive.dialect is the bean
+public interface ReactiveCartRepo extends ReactorCrudRepository<Cart, Long> {
+
+    @NotNull Flux<Cart> findByIdGreaterThan(final @NotNull Long id, final @NotNull Pageable pageable);
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.H2)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", notEquals = "POSTGRES")
+    interface H2 extends ReactiveCartRepo {
+    }
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.POSTGRES)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", value = "POSTGRES")
+    interface Postgres extends ReactiveCartRepo {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package co.piter.buyrecipes.repo;
+
+import co.piter.buyrecipes.entity.CartItem;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.GenericRepository;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+// the cart line upsert of PostgresCartLineWriter over R2DBC, a new line takes a whole pooled-lo block of cart_items_seq
+@R2dbcRepository(dataSource = "reactive", dialect = Dialect.POSTGRES)
+@Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+@Requires(property = "r2dbc.datasources.reactive.dialect", value = "POSTGRES")
+public interface ReactivePostgresCartLineRepository extends GenericRepository<CartItem, Long> {
+
+    @Query(value = "INSERT INTO cart_items (id, cart_id, product_id, quantity, version)"
+            + " VALUES (nextval('cart_items_seq'), :cartId, :productId, :quantity, 0)"
+            + " ON CONFLICT (cart_id, product_id)"
+            + " DO UPDATE SET quantity = cart_items.quantity + EXCLUDED.quantity, version = cart_items.version + 1",
+            nativeQuery = true)
+    @NotNull Mono<Long> upsertQuantity(final @NotNull Long cartId, final @NotNull Long productId, final int quantity);
+}
\ No newline at end of file
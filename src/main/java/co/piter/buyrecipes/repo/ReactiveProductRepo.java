@@ -0,0 +1,30 @@
+package co.piter.buyrecipes.repo;
+
+import co.piter.buyrecipes.entity.Product;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.reactive.ReactorCrudRepository;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+// R2DBC twin of ProductRepo, reads only, products are still written through ProductService, one variant per dialect as ReactiveCartRepo
+public interface ReactiveProductRepo extends ReactorCrudRepository<Product, Long> {
+
+    @NotNull Flux<Product> findByIdIn(final @NotNull Collection<Long> ids);
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.H2)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", notEquals = "POSTGRES")
+    interface H2 extends ReactiveProductRepo {
+    }
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.POSTGRES)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", value = "POSTGRES")
+    interface Postgres extends ReactiveProductRepo {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package co.piter.buyrecipes.repo;
+
+import co.piter.buyrecipes.entity.RecipeIngredient;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.reactive.ReactorCrudRepository;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+
+// R2DBC twin of RecipeIngredientRepo, reads only, one variant per dialect as ReactiveCartRepo
+public interface ReactiveRecipeIngredientRepo extends ReactorCrudRepository<RecipeIngredient, Long> {
+
+    @NotNull Flux<RecipeIngredient> findByRecipeId(final @NotNull Long recipeId);
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.H2)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", notEquals = "POSTGRES")
+    interface H2 extends ReactiveRecipeIngredientRepo {
+    }
+
+    @R2dbcRepository(dataSource = "reactive", dialect = Dialect.POSTGRES)
+    @Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+    @Requires(property = "r2dbc.datasources.reactive.dialect", value = "POSTGRES")
+    interface Postgres extends ReactiveRecipeIngredientRepo {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package co.piter.buyrecipes.repo;
+
+import co.piter.buyrecipes.entity.RecipeCost;
+import co.piter.buyrecipes.tracing.Traced;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jpa.repository.JpaRepository;
+import org.jetbrains.annotations.NotNull;
+
+@Repository
+@Traced
+public interface RecipeCostRepo extends JpaRepository<RecipeCost, Long> {
+    // JpaRepository provides:
+    // - save(RecipeCost cost): create/update a recipe cost
+    // - findById(Long recipeId): find the cost of a recipe
+    // - deleteById(Long recipeId): delete the cost of a recipe
+
+    // increments in the database so concurrent ingredient changes do not lose updates
+    @Query("""
+            UPDATE RecipeCost rc
+            SET rc.costInCents = rc.costInCents + :costDelta,
+                rc.weightedCostInCents = rc.weightedCostInCents + :weightedCostDelta
+            WHERE rc.recipeId = :recipeId""")
+    int updateCostByRecipeId(final @NotNull Long recipeId, final long costDelta, final long weightedCostDelta);
+
+    // a price change moves the cost of every recipe using the product, once per ingredient row
+    @Query("""
+            UPDATE RecipeCost rc
+            SET rc.costInCents = rc.costInCents + :priceDelta * (
+                    SELECT COUNT(ri.id) FROM RecipeIngredient ri
+                    WHERE ri.recipeId = rc.recipeId AND ri.productId = :productId),
+                rc.weightedCostInCents = rc.weightedCostInCents + :priceDelta * (
+                    SELECT COALESCE(SUM(ri.quantity), 0) FROM RecipeIngredient ri
+                    WHERE ri.recipeId = rc.recipeId AND ri.productId = :productId)
+            WHERE rc.recipeId IN (SELECT ri.recipeId FROM RecipeIngredient ri WHERE ri.productId = :productId)""")
+    int updateCostByProductPriceChange(final @NotNull Long productId, final long priceDelta);
+}
\ No newline at end of file
@@ -1,14 +1,19 @@
 package co.piter.buyrecipes.repo;
 
 import co.piter.buyrecipes.entity.RecipeIngredient;
+import co.piter.buyrecipes.tracing.Traced;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.data.model.Pageable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
+@Traced
 public interface RecipeIngredientRepo extends JpaRepository<RecipeIngredient, Long> {
     // JpaRepository provides:
     // - save(Cart cart): create/update a cart
@@ -21,5 +26,31 @@ public interface RecipeIngredientRepo extends JpaRepository<RecipeIngredient, Lo
 
     @Nullable List<RecipeIngredient> findByProductId(final @NotNull Long productId);
 
+    @NotNull List<RecipeIngredient> findByRecipeIdIn(final @NotNull Collection<Long> recipeIds);
+
     long deleteByRecipeId(final @NotNull Long recipeId);
+
+    long deleteByProductId(final @NotNull Long productId);
+
+    @Query("""
+            SELECT r.id AS recipeId, r.name AS recipeName, r.description AS recipeDescription,
+                   ri.productId AS productId, p.name AS productName, p.priceInCents AS priceInCents, ri.quantity AS quantity
+            FROM Recipe r
+            LEFT JOIN RecipeIngredient ri ON ri.recipeId = r.id
+            LEFT JOIN Product p ON p.id = ri.productId
+            WHERE r.id IN (:recipeIds)
+            ORDER BY r.id, ri.id""")
+    @NotNull List<RecipeIngredientRow> findRecipeRowsByRecipeIdIn(final @NotNull Collection<Long> recipeIds);
+
+    @Query("""
+            SELECT r.id AS recipeId, r.name AS recipeName, r.description AS recipeDescription,
+                   ri.productId AS productId, p.name AS productName, p.priceInCents AS priceInCents, ri.quantity AS quantity
+            FROM Recipe r
+            LEFT JOIN RecipeIngredient ri ON ri.recipeId = r.id
+            LEFT JOIN Product p ON p.id = ri.productId
+            WHERE r.id = :recipeId
+            ORDER BY ri.id""")
+    @NotNull List<RecipeIngredientRow> findRecipeRowsByRecipeId(final @NotNull Long recipeId);
+
+    @NotNull List<RecipeIngredient> findByIdGreaterThan(final @NotNull Long id, final @NotNull Pageable pageable);
 }
\ No newline at end of file
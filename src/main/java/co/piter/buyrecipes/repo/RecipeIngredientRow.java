@@ -0,0 +1,18 @@
+package co.piter.buyrecipes.repo;
+
+import io.micronaut.core.annotation.Introspected;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// one row per recipe ingredient, recipe and product columns joined in
+@Introspected
+public record RecipeIngredientRow(
+        @NotNull Long recipeId,
+        @NotNull String recipeName,
+        @Nullable String recipeDescription,
+        @Nullable Long productId, // null for a recipe without ingredients
+        @Nullable String productName, // null when the ingredient's product is gone
+        @Nullable Integer priceInCents,
+        @Nullable Integer quantity
+) {
+}
\ No newline at end of file
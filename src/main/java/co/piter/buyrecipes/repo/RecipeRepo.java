@@ -1,10 +1,16 @@
 package co.piter.buyrecipes.repo;
 
 import co.piter.buyrecipes.entity.Recipe;
+import co.piter.buyrecipes.tracing.Traced;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.data.model.Pageable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
 
 @Repository
+@Traced
 public interface RecipeRepo extends JpaRepository<Recipe, Long> {
     // JpaRepository provides:
     // - save(Cart cart): create/update a cart
@@ -12,4 +18,6 @@ public interface RecipeRepo extends JpaRepository<Recipe, Long> {
     // - findAll(): get all carts
     // - deleteById(Long id): delete a cart by ID
     // - existsById(Long id): check if a cart exists by ID
+
+    @NotNull List<Recipe> findByIdGreaterThan(final @NotNull Long id, final @NotNull Pageable pageable);
 }
\ No newline at end of file
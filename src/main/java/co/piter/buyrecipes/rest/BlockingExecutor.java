@@ -0,0 +1,150 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.dto.ExecutorStatsDto;
+import io.micronaut.context.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+// the controllers' @ExecuteOn target, services block on JDBC and must stay off the netty event loop;
+// a virtual thread per request on Java 21+, a bounded platform thread pool otherwise, counting how long
+// requests wait for a thread and how many are waiting
+@Singleton
+@Named(BlockingExecutor.NAME)
+public class BlockingExecutor extends AbstractExecutorService {
+
+    public static final String NAME = "buyrecipes-blocking";
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(BlockingExecutor.class);
+
+    private final @NotNull ExecutorService delegate;
+    private final boolean virtualThreads;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAccumulator maxQueued = new LongAccumulator(Math::max, 0L);
+    private final LongAdder started = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    public BlockingExecutor(
+            @Value("${buyrecipes.executor.virtual-threads:true}") final boolean virtualThreads,
+            @Value("${buyrecipes.executor.threads:32}") final int threads,
+            @Value("${buyrecipes.executor.queue-capacity:10000}") final int queueCapacity
+    ) {
+        final ExecutorService virtual = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        this.virtualThreads = virtual != null;
+        if (virtual != null) {
+            this.delegate = virtual;
+            log.info("Blocking calls run on virtual threads");
+        } else {
+            final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    threads, threads,
+                    60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), // beyond it submissions are rejected rather than piling up
+                    namedThreads());
+            pool.allowCoreThreadTimeOut(true);
+            this.delegate = pool;
+            log.info("Blocking calls run on a pool of {} threads, queueing up to {}", threads, queueCapacity);
+        }
+    }
+
+    @Override
+    public void execute(final @NotNull Runnable command) {
+        requireNonNull(command);
+        final long submitted = System.nanoTime();
+        maxQueued.accumulate(queued.incrementAndGet());
+        try {
+            delegate.execute(() -> {
+                final long waited = System.nanoTime() - submitted;
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                started.increment();
+                waitNanos.add(waited);
+                maxWaitNanos.accumulate(waited);
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        } catch (final RuntimeException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public @NotNull ExecutorStatsDto getStats() {
+        final long count = started.sum();
+        return new ExecutorStatsDto(
+                virtualThreads,
+                queued.get(),
+                maxQueued.get(),
+                active.get(),
+                count,
+                count == 0L ? 0.0 : waitNanos.sum() / 1e6 / count,
+                maxWaitNanos.get() / 1e6);
+    }
+
+    @PreDestroy
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final @NotNull TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    // looked up reflectively, the build targets Java 17 where the factory method does not exist
+    private static @Nullable ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            log.info("Virtual threads need Java 21, running {}", Runtime.version().feature());
+            return null;
+        }
+    }
+
+    private static @NotNull ThreadFactory namedThreads() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, NAME + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
\ No newline at end of file
@@ -2,12 +2,21 @@ package co.piter.buyrecipes.rest;
 
 import co.piter.buyrecipes.dto.AddProductRequest;
 import co.piter.buyrecipes.dto.AddRecipeRequest;
+import co.piter.buyrecipes.dto.AddRecipesRequest;
 import co.piter.buyrecipes.dto.CartDto;
 import co.piter.buyrecipes.dto.CreateCartRequest;
 import co.piter.buyrecipes.dto.UpdateCartRequest;
+import co.piter.buyrecipes.metrics.Measured;
+import co.piter.buyrecipes.metrics.QueryBudget;
 import co.piter.buyrecipes.service.CartService;
+import co.piter.buyrecipes.service.KeysetPage;
+import co.piter.buyrecipes.tracing.Traced;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +25,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Singleton;
 import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -23,25 +33,50 @@ import static java.util.Objects.requireNonNull;
 
 @Controller("/carts")
 @Singleton
+@Requires(property = "buyrecipes.data.reactive", notEquals = StringUtils.TRUE)
+@ExecuteOn(BlockingExecutor.NAME)
+@Measured
+@QueryBudget
+@Traced
 @Tag(name = "Shopping Carts", description = "Shopping cart management")
 public class CartController {
 
     private final @NotNull CartService cartService;
+    private final @NotNull JsonMapper jsonMapper;
 
-    public CartController(final @NotNull CartService cartService) {
+    public CartController(final @NotNull CartService cartService, final @NotNull JsonMapper jsonMapper) {
         this.cartService = requireNonNull(cartService);
+        this.jsonMapper = requireNonNull(jsonMapper);
     }
 
     @Get
     @Operation(
-            summary = "List all carts",
-            description = "Returns a list of all shopping carts")
+            summary = "List carts",
+            description = "Returns a page of shopping carts, ordered by ID")
     @ApiResponse(
             responseCode = "200",
             description = "Successful operation",
             content = @Content(schema = @Schema(implementation = CartDto.class)))
-    public @NotNull HttpResponse<List<CartDto>> getAllCarts() {
-        return HttpResponse.ok(cartService.getAllCarts());
+    public @NotNull HttpResponse<List<CartDto>> getAllCarts(
+            @Parameter(
+                    description = "Only return carts with an ID greater than this one, the last ID of the previous page")
+            @QueryValue(defaultValue = "0") final @NotNull Long after,
+            @Parameter(
+                    description = "Maximum number of carts to return, at most " + KeysetPage.MAX_LIMIT)
+            @QueryValue(defaultValue = KeysetPage.DEFAULT_LIMIT) final int limit) {
+        return HttpResponse.ok(cartService.getCarts(after, limit));
+    }
+
+    @Get(value = "/stream", produces = NdjsonStream.APPLICATION_NDJSON)
+    @Operation(
+            summary = "Stream all carts",
+            description = "Streams every cart as one JSON document per line, reading them a page at a time")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation",
+            content = @Content(mediaType = NdjsonStream.APPLICATION_NDJSON, schema = @Schema(implementation = CartDto.class)))
+    public @NotNull Flux<String> streamCarts() {
+        return NdjsonStream.of(jsonMapper, cartService::getCarts, CartDto::getId);
     }
 
     @Post
@@ -204,6 +239,33 @@ public class CartController {
                 .orElse(HttpResponse.notFound());
     }
 
+    @Post("/{cartId}/add_recipes")
+    @Operation(
+            summary = "Add recipes to cart",
+            description = "Adds several recipes and their ingredients to the shopping cart in one transaction")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Recipes added to cart successfully",
+            content = @Content(schema = @Schema(implementation = CartDto.class)))
+    @ApiResponse(
+            responseCode = "404",
+            description = "Cart or any of the recipes not found, nothing is added")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input")
+    public @NotNull HttpResponse<CartDto> addRecipesToCart(
+            @Parameter(
+                    description = "ID of cart to add recipes to",
+                    required = true) final @NotNull @PathVariable Long cartId,
+            @Parameter(
+                    description = "Recipes to add to cart",
+                    required = true) final @NotNull @Body AddRecipesRequest request
+    ) {
+        return cartService.addRecipesToCart(cartId, request.getRecipeIds())
+                .map(HttpResponse::ok)
+                .orElse(HttpResponse.notFound());
+    }
+
     @Delete("/{cartId}/recipes/{recipeId}")
     @Operation(
             summary = "Remove recipe from cart", description = "Removes a recipe and its ingredients from the shopping cart")
@@ -226,4 +288,24 @@ public class CartController {
                 .map(HttpResponse::ok)
                 .orElse(HttpResponse.notFound());
     }
+
+    @Post("/{cartId}/reconcile")
+    @Operation(
+            summary = "Reconcile cart total",
+            description = "Recomputes the cart total from its items, correcting any drift")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Cart total reconciled successfully",
+            content = @Content(schema = @Schema(implementation = CartDto.class)))
+    @ApiResponse(
+            responseCode = "404",
+            description = "Cart not found")
+    public @NotNull HttpResponse<CartDto> reconcileCartTotal(
+            @Parameter(
+                    description = "ID of cart to reconcile",
+                    required = true) final @NotNull @PathVariable Long cartId) {
+        return cartService.reconcileCartTotal(cartId)
+                .map(HttpResponse::ok)
+                .orElse(HttpResponse.notFound());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.service.KeysetPage;
+import io.micronaut.json.JsonMapper;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// one JSON document per line, read a keyset page at a time as the client consumes them
+final class NdjsonStream {
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final long DONE = -1L;
+
+    private NdjsonStream() {
+        // no instances
+    }
+
+    static <T> @NotNull Flux<String> of(
+            final @NotNull JsonMapper jsonMapper,
+            final @NotNull BiFunction<Long, Integer, List<T>> pageReader,
+            final @NotNull Function<T, Long> idOf
+    ) {
+        return Flux.<List<T>, Long>generate(() -> 0L, (after, sink) -> {
+                    if (after == DONE) {
+                        sink.complete();
+                        return DONE;
+                    }
+                    final List<T> page = pageReader.apply(after, KeysetPage.MAX_LIMIT);
+                    if (page.isEmpty()) {
+                        sink.complete();
+                        return DONE;
+                    }
+                    sink.next(page);
+                    return page.size() < KeysetPage.MAX_LIMIT ? DONE : idOf.apply(page.get(page.size() - 1));
+                })
+                .concatMapIterable(Function.identity())
+                .map(item -> toLine(jsonMapper, item))
+                .subscribeOn(Schedulers.boundedElastic()); // repository reads block
+    }
+
+    private static @NotNull String toLine(final @NotNull JsonMapper jsonMapper, final @NotNull Object item) {
+        try {
+            return jsonMapper.writeValueAsString(item) + "\n";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
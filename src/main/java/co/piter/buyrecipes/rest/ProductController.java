@@ -1,11 +1,17 @@
 package co.piter.buyrecipes.rest;
 
 import co.piter.buyrecipes.dto.CreateProductRequest;
+import co.piter.buyrecipes.dto.ProductCacheStatsDto;
 import co.piter.buyrecipes.dto.ProductDto;
 import co.piter.buyrecipes.dto.UpdateProductRequest;
+import co.piter.buyrecipes.metrics.Measured;
+import co.piter.buyrecipes.service.KeysetPage;
 import co.piter.buyrecipes.service.ProductService;
+import co.piter.buyrecipes.tracing.Traced;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +20,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Singleton;
 import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -21,13 +28,18 @@ import static java.util.Objects.requireNonNull;
 
 @Controller("/products")
 @Singleton
+@ExecuteOn(BlockingExecutor.NAME)
+@Measured
+@Traced
 @Tag(name = "Products", description = "Product management")
 public class ProductController {
 
     private final @NotNull ProductService productService;
+    private final @NotNull JsonMapper jsonMapper;
 
-    public ProductController(final @NotNull ProductService productService) {
+    public ProductController(final @NotNull ProductService productService, final @NotNull JsonMapper jsonMapper) {
         this.productService = requireNonNull(productService);
+        this.jsonMapper = requireNonNull(jsonMapper);
     }
 
     @Post
@@ -50,14 +62,44 @@ public class ProductController {
 
     @Get
     @Operation(
-            summary = "List all products",
-            description = "Returns a list of all products in the system")
+            summary = "List products",
+            description = "Returns a page of products, ordered by ID")
     @ApiResponse(
             responseCode = "200",
             description = "Successful operation",
             content = @Content(schema = @Schema(implementation = ProductDto.class)))
-    public @NotNull HttpResponse<List<ProductDto>> getAllProducts() {
-        return HttpResponse.ok(productService.getAllProducts());
+    public @NotNull HttpResponse<List<ProductDto>> getAllProducts(
+            @Parameter(
+                    description = "Only return products with an ID greater than this one, the last ID of the previous page")
+            @QueryValue(defaultValue = "0") final @NotNull Long after,
+            @Parameter(
+                    description = "Maximum number of products to return, at most " + KeysetPage.MAX_LIMIT)
+            @QueryValue(defaultValue = KeysetPage.DEFAULT_LIMIT) final int limit) {
+        return HttpResponse.ok(productService.getProducts(after, limit));
+    }
+
+    @Get(value = "/stream", produces = NdjsonStream.APPLICATION_NDJSON)
+    @Operation(
+            summary = "Stream all products",
+            description = "Streams every product as one JSON document per line, reading them a page at a time")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation",
+            content = @Content(mediaType = NdjsonStream.APPLICATION_NDJSON, schema = @Schema(implementation = ProductDto.class)))
+    public @NotNull Flux<String> streamProducts() {
+        return NdjsonStream.of(jsonMapper, productService::getProducts, ProductDto::getId);
+    }
+
+    @Get("/cache/stats")
+    @Operation(
+            summary = "Product cache statistics",
+            description = "Returns the size and hit, miss and eviction counters of the product cache")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = ProductCacheStatsDto.class)))
+    public @NotNull HttpResponse<ProductCacheStatsDto> getCacheStats() {
+        return HttpResponse.ok(productService.getCacheStats());
     }
 
     @Get("/{id}")
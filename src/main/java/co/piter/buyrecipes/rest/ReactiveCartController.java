@@ -0,0 +1,157 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.dto.AddProductRequest;
+import co.piter.buyrecipes.dto.AddRecipeRequest;
+import co.piter.buyrecipes.dto.AddRecipesRequest;
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.CreateCartRequest;
+import co.piter.buyrecipes.dto.UpdateCartRequest;
+import co.piter.buyrecipes.service.CartService;
+import co.piter.buyrecipes.service.KeysetPage;
+import co.piter.buyrecipes.service.ReactiveCartService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.json.JsonMapper;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static java.util.Objects.requireNonNull;
+
+// CartController's routes when buyrecipes.data.reactive is set: reads and the add/remove endpoints a shopping
+// session hammers run on the event loop over R2DBC, the rest are handed to CartService on the blocking executor.
+// Hidden from the spec, which CartController already documents with the same operations, so no OpenAPI annotations here
+@Controller("/carts")
+@Singleton
+@Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+@Hidden
+public class ReactiveCartController {
+
+    private final @NotNull ReactiveCartService reactiveCartService;
+    private final @NotNull CartService cartService;
+    private final @NotNull Scheduler blockingScheduler;
+    private final @NotNull JsonMapper jsonMapper;
+
+    public ReactiveCartController(
+            final @NotNull ReactiveCartService reactiveCartService,
+            final @NotNull CartService cartService,
+            final @NotNull BlockingExecutor blockingExecutor,
+            final @NotNull JsonMapper jsonMapper
+    ) {
+        this.reactiveCartService = requireNonNull(reactiveCartService);
+        this.cartService = requireNonNull(cartService);
+        this.blockingScheduler = Schedulers.fromExecutorService(requireNonNull(blockingExecutor));
+        this.jsonMapper = requireNonNull(jsonMapper);
+    }
+
+    @Get
+    public @NotNull Mono<HttpResponse<List<CartDto>>> getAllCarts(
+            @QueryValue(defaultValue = "0") final @NotNull Long after,
+            @QueryValue(defaultValue = KeysetPage.DEFAULT_LIMIT) final int limit) {
+        return reactiveCartService.getCarts(after, limit).<HttpResponse<List<CartDto>>>map(HttpResponse::ok);
+    }
+
+    @Get(value = "/stream", produces = NdjsonStream.APPLICATION_NDJSON)
+    public @NotNull Flux<String> streamCarts() {
+        return NdjsonStream.of(jsonMapper, cartService::getCarts, CartDto::getId);
+    }
+
+    @Post
+    public @NotNull Mono<HttpResponse<CartDto>> createCart(final @NotNull @Body CreateCartRequest request) {
+        return blocking(() -> cartService.createCart(request)).<HttpResponse<CartDto>>map(HttpResponse::ok);
+    }
+
+    @Put("/{cartId}")
+    public @NotNull Mono<HttpResponse<CartDto>> updateCart(
+            final @NotNull @PathVariable Long cartId,
+            final @NotNull @Body UpdateCartRequest request
+    ) {
+        return blocking(() -> cartService.updateCart(cartId, request).orElse(null))
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Delete("/{cartId}")
+    public @NotNull Mono<HttpResponse<Void>> deleteCart(final @NotNull @PathVariable Long cartId) {
+        return blocking(() -> cartService.deleteCart(cartId))
+                .<HttpResponse<Void>>map(deleted -> deleted ? HttpResponse.ok() : HttpResponse.notFound());
+    }
+
+    @Get("/{cartId}")
+    public @NotNull Mono<HttpResponse<CartDto>> getCartById(final @NotNull @PathVariable Long cartId) {
+        return reactiveCartService.getCartById(cartId)
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Post("/{cartId}/add_product")
+    public @NotNull Mono<HttpResponse<CartDto>> addProductToCart(
+            final @NotNull @PathVariable Long cartId,
+            final @NotNull @Body AddProductRequest request
+    ) {
+        return reactiveCartService.addProductToCart(cartId, request.getProductId())
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Delete("/{cartId}/products/{productId}")
+    public @NotNull Mono<HttpResponse<CartDto>> removeProductFromCart(
+            final @NotNull @PathVariable Long cartId,
+            final @NotNull @PathVariable Long productId
+    ) {
+        return reactiveCartService.removeProductFromCart(cartId, productId)
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Post("/{cartId}/add_recipe")
+    public @NotNull Mono<HttpResponse<CartDto>> addRecipeToCart(
+            final @NotNull @PathVariable Long cartId,
+            final @NotNull @Body AddRecipeRequest request
+    ) {
+        return reactiveCartService.addRecipeToCart(cartId, request.getRecipeId())
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Post("/{cartId}/add_recipes")
+    public @NotNull Mono<HttpResponse<CartDto>> addRecipesToCart(
+            final @NotNull @PathVariable Long cartId,
+            final @NotNull @Body AddRecipesRequest request
+    ) {
+        return blocking(() -> cartService.addRecipesToCart(cartId, request.getRecipeIds()).orElse(null))
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Delete("/{cartId}/recipes/{recipeId}")
+    public @NotNull Mono<HttpResponse<CartDto>> removeRecipeFromCart(
+            final @NotNull @PathVariable Long cartId,
+            final @NotNull @PathVariable Long recipeId
+    ) {
+        return blocking(() -> cartService.removeRecipeFromCart(cartId, recipeId).orElse(null))
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Post("/{cartId}/reconcile")
+    public @NotNull Mono<HttpResponse<CartDto>> reconcileCartTotal(final @NotNull @PathVariable Long cartId) {
+        return blocking(() -> cartService.reconcileCartTotal(cartId).orElse(null))
+                .<HttpResponse<CartDto>>map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    // an empty Mono when the call returns null
+    private <T> @NotNull Mono<T> blocking(final @NotNull Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(blockingScheduler);
+    }
+}
\ No newline at end of file
@@ -1,11 +1,19 @@
 package co.piter.buyrecipes.rest;
 
 import co.piter.buyrecipes.dto.CreateRecipeRequest;
+import co.piter.buyrecipes.dto.RecipeCostDto;
 import co.piter.buyrecipes.dto.RecipeDto;
 import co.piter.buyrecipes.dto.UpdateRecipeRequest;
+import co.piter.buyrecipes.metrics.Measured;
+import co.piter.buyrecipes.metrics.QueryBudget;
+import co.piter.buyrecipes.service.KeysetPage;
+import co.piter.buyrecipes.service.RecipeCostService;
 import co.piter.buyrecipes.service.RecipeService;
+import co.piter.buyrecipes.tracing.Traced;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +22,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Singleton;
 import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -21,13 +30,25 @@ import static java.util.Objects.requireNonNull;
 
 @Controller("/recipes")
 @Singleton
+@ExecuteOn(BlockingExecutor.NAME)
+@Measured
+@QueryBudget
+@Traced
 @Tag(name = "Recipes", description = "Recipe management")
 public class RecipeController {
 
     private final @NotNull RecipeService recipeService;
+    private final @NotNull RecipeCostService recipeCostService;
+    private final @NotNull JsonMapper jsonMapper;
 
-    public RecipeController(final @NotNull RecipeService recipeService) {
+    public RecipeController(
+            final @NotNull RecipeService recipeService,
+            final @NotNull RecipeCostService recipeCostService,
+            final @NotNull JsonMapper jsonMapper
+    ) {
         this.recipeService = requireNonNull(recipeService);
+        this.recipeCostService = requireNonNull(recipeCostService);
+        this.jsonMapper = requireNonNull(jsonMapper);
     }
 
     @Get("/test")
@@ -37,14 +58,32 @@ public class RecipeController {
 
     @Get
     @Operation(
-            summary = "List all recipes",
-            description = "Returns a list of all recipes in the system")
+            summary = "List recipes",
+            description = "Returns a page of recipes, ordered by ID")
     @ApiResponse(
             responseCode = "200",
             description = "Successful operation",
             content = @Content(schema = @Schema(implementation = RecipeDto.class)))
-    public @NotNull HttpResponse<List<RecipeDto>> getAllRecipes() {
-        return HttpResponse.ok(recipeService.getAllRecipes());
+    public @NotNull HttpResponse<List<RecipeDto>> getAllRecipes(
+            @Parameter(
+                    description = "Only return recipes with an ID greater than this one, the last ID of the previous page")
+            @QueryValue(defaultValue = "0") final @NotNull Long after,
+            @Parameter(
+                    description = "Maximum number of recipes to return, at most " + KeysetPage.MAX_LIMIT)
+            @QueryValue(defaultValue = KeysetPage.DEFAULT_LIMIT) final int limit) {
+        return HttpResponse.ok(recipeService.getRecipes(after, limit));
+    }
+
+    @Get(value = "/stream", produces = NdjsonStream.APPLICATION_NDJSON)
+    @Operation(
+            summary = "Stream all recipes",
+            description = "Streams every recipe as one JSON document per line, reading them a page at a time")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation",
+            content = @Content(mediaType = NdjsonStream.APPLICATION_NDJSON, schema = @Schema(implementation = RecipeDto.class)))
+    public @NotNull Flux<String> streamRecipes() {
+        return NdjsonStream.of(jsonMapper, recipeService::getRecipes, RecipeDto::getId);
     }
 
     @Get("/{id}")
@@ -67,6 +106,26 @@ public class RecipeController {
                 .orElse(HttpResponse.notFound());
     }
 
+    @Get("/{id}/cost")
+    @Operation(
+            summary = "Get the cost of a recipe",
+            description = "Returns the precomputed cost of a recipe's ingredients")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Recipe found",
+            content = @Content(schema = @Schema(implementation = RecipeCostDto.class)))
+    @ApiResponse(
+            responseCode = "404",
+            description = "Recipe not found")
+    public @NotNull HttpResponse<RecipeCostDto> getRecipeCost(
+            @Parameter(
+                    description = "ID of recipe to price",
+                    required = true) final @NotNull @PathVariable Long id) {
+        return recipeCostService.getRecipeCost(id)
+                .map(HttpResponse::ok)
+                .orElse(HttpResponse.notFound());
+    }
+
     @Post
     @Operation(
             summary = "Create a new recipe",
@@ -3,9 +3,14 @@ package co.piter.buyrecipes.rest;
 import co.piter.buyrecipes.dto.CreateRecipeIngredientRequest;
 import co.piter.buyrecipes.dto.RecipeIngredientDto;
 import co.piter.buyrecipes.dto.UpdateRecipeIngredientRequest;
+import co.piter.buyrecipes.metrics.Measured;
+import co.piter.buyrecipes.service.KeysetPage;
 import co.piter.buyrecipes.service.RecipeIngredientService;
+import co.piter.buyrecipes.tracing.Traced;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +19,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Singleton;
 import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -21,25 +27,48 @@ import static java.util.Objects.requireNonNull;
 
 @Controller("/recipe-ingredients")
 @Singleton
+@ExecuteOn(BlockingExecutor.NAME)
+@Measured
+@Traced
 @Tag(name = "Recipe Ingredients", description = "Recipe ingredient management")
 public class RecipeIngredientController {
 
     private final @NotNull RecipeIngredientService recipeIngredientService;
+    private final @NotNull JsonMapper jsonMapper;
 
-    public RecipeIngredientController(final @NotNull RecipeIngredientService recipeIngredientService) {
+    public RecipeIngredientController(final @NotNull RecipeIngredientService recipeIngredientService, final @NotNull JsonMapper jsonMapper) {
         this.recipeIngredientService = requireNonNull(recipeIngredientService);
+        this.jsonMapper = requireNonNull(jsonMapper);
     }
 
     @Get
     @Operation(
-            summary = "List all recipe ingredients",
-            description = "Returns a list of all recipe ingredients")
+            summary = "List recipe ingredients",
+            description = "Returns a page of recipe ingredients, ordered by ID")
     @ApiResponse(
             responseCode = "200",
             description = "Successful operation",
             content = @Content(schema = @Schema(implementation = RecipeIngredientDto.class)))
-    public @NotNull HttpResponse<List<RecipeIngredientDto>> getAllRecipeIngredients() {
-        return HttpResponse.ok(recipeIngredientService.getAllRecipeIngredients());
+    public @NotNull HttpResponse<List<RecipeIngredientDto>> getAllRecipeIngredients(
+            @Parameter(
+                    description = "Only return recipe ingredients with an ID greater than this one, the last ID of the previous page")
+            @QueryValue(defaultValue = "0") final @NotNull Long after,
+            @Parameter(
+                    description = "Maximum number of recipe ingredients to return, at most " + KeysetPage.MAX_LIMIT)
+            @QueryValue(defaultValue = KeysetPage.DEFAULT_LIMIT) final int limit) {
+        return HttpResponse.ok(recipeIngredientService.getRecipeIngredients(after, limit));
+    }
+
+    @Get(value = "/stream", produces = NdjsonStream.APPLICATION_NDJSON)
+    @Operation(
+            summary = "Stream all recipe ingredients",
+            description = "Streams every recipe ingredient as one JSON document per line, reading them a page at a time")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation",
+            content = @Content(mediaType = NdjsonStream.APPLICATION_NDJSON, schema = @Schema(implementation = RecipeIngredientDto.class)))
+    public @NotNull Flux<String> streamRecipeIngredients() {
+        return NdjsonStream.of(jsonMapper, recipeIngredientService::getRecipeIngredients, RecipeIngredientDto::getId);
     }
 
     @Get("/{id}")
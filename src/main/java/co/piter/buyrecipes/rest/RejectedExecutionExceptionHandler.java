@@ -0,0 +1,29 @@
+package co.piter.buyrecipes.rest;
+
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// the blocking executor's queue is full: the server is overloaded rather than broken, 503 tells clients to back off
+@Produces
+@Singleton
+public class RejectedExecutionExceptionHandler implements ExceptionHandler<RejectedExecutionException, HttpResponse<?>> {
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(RejectedExecutionExceptionHandler.class);
+
+    @Override
+    public @NotNull HttpResponse<?> handle(final @NotNull HttpRequest request, final @NotNull RejectedExecutionException exception) {
+        log.warn("Rejected {} {}, the blocking executor is saturated", request.getMethod(), request.getPath());
+        return HttpResponse.status(HttpStatus.SERVICE_UNAVAILABLE, "Server busy")
+                .header(HttpHeaders.RETRY_AFTER, "1");
+    }
+}
\ No newline at end of file
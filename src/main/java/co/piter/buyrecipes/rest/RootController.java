@@ -1,21 +1,49 @@
 package co.piter.buyrecipes.rest;
 
+import co.piter.buyrecipes.dto.ExecutorStatsDto;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
 import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Singleton;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.URI;
 
+import static java.util.Objects.requireNonNull;
+
 @Controller
 @Singleton
+@Tag(name = "Operations", description = "Runtime statistics")
 public class RootController {
 
+    private final @NotNull BlockingExecutor blockingExecutor;
+
+    public RootController(final @NotNull BlockingExecutor blockingExecutor) {
+        this.blockingExecutor = requireNonNull(blockingExecutor);
+    }
+
     @Get()
     @Hidden
     public @NotNull HttpResponse<?> root() {
         return HttpResponse.redirect(URI.create("/swagger-ui"));
     }
+
+    // answered on the event loop, so that it still responds when the blocking executor is saturated
+    @Get("/executor/stats")
+    @Operation(
+            summary = "Blocking executor statistics",
+            description = "Returns how many requests wait for a thread, how many run and how long they waited")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = ExecutorStatsDto.class)))
+    public @NotNull HttpResponse<ExecutorStatsDto> getExecutorStats() {
+        return HttpResponse.ok(blockingExecutor.getStats());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.dto.ProductDto;
+import co.piter.buyrecipes.entity.Product;
+import org.jetbrains.annotations.NotNull;
+
+import static java.util.Objects.requireNonNull;
+
+// immutable copy of a product, safe to share between requests unlike the entity or the dto
+record CachedProduct(@NotNull Long id, @NotNull String name, int priceInCents) {
+
+    static @NotNull CachedProduct of(final @NotNull Product product) {
+        return new CachedProduct(requireNonNull(product.getId()), product.getName(), product.getPriceInCents());
+    }
+
+    @NotNull ProductDto toDto() {
+        return new ProductDto(id, name, priceInCents);
+    }
+}
\ No newline at end of file
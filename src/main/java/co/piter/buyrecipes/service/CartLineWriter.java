@@ -0,0 +1,11 @@
+package co.piter.buyrecipes.service;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+// adds quantities to a cart's lines, one line per product, creating the lines that do not exist yet
+public interface CartLineWriter {
+
+    void addQuantities(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities);
+}
\ No newline at end of file
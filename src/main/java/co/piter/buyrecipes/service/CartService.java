@@ -6,48 +6,57 @@ import co.piter.buyrecipes.dto.ProductDto;
 import co.piter.buyrecipes.dto.UpdateCartRequest;
 import co.piter.buyrecipes.entity.Cart;
 import co.piter.buyrecipes.entity.CartItem;
-import co.piter.buyrecipes.entity.Product;
 import co.piter.buyrecipes.entity.RecipeIngredient;
+import co.piter.buyrecipes.metrics.Measured;
 import co.piter.buyrecipes.repo.CartItemRepository;
 import co.piter.buyrecipes.repo.CartRepo;
-import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.CartTotalDrift;
 import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.tracing.Traced;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 @Singleton
+@Measured
+@Traced
 public class CartService {
 
+    private static final @NotNull Logger log = LoggerFactory.getLogger(CartService.class);
+
     private final @NotNull CartRepo cartRepo;
     private final @NotNull CartItemRepository cartItemRepository;
-    private final @NotNull ProductRepo productRepo;
+    private final @NotNull CartLineWriter cartLineWriter;
+    private final @NotNull ProductCache productCache;
     private final @NotNull RecipeIngredientRepo recipeIngredientRepo;
 
     public CartService(
             final @NotNull CartRepo cartRepo,
             final @NotNull CartItemRepository cartItemRepository,
-            final @NotNull ProductRepo productRepo,
+            final @NotNull CartLineWriter cartLineWriter,
+            final @NotNull ProductCache productCache,
             final @NotNull RecipeIngredientRepo recipeIngredientRepo
     ) {
         this.cartRepo = requireNonNull(cartRepo);
         this.cartItemRepository = requireNonNull(cartItemRepository);
-        this.productRepo = requireNonNull(productRepo);
+        this.cartLineWriter = requireNonNull(cartLineWriter);
+        this.productCache = requireNonNull(productCache);
         this.recipeIngredientRepo = requireNonNull(recipeIngredientRepo);
     }
 
-    public @NotNull List<CartDto> getAllCarts() {
-        return Optional.ofNullable(cartRepo.findAll())
-                .map(carts -> carts.stream()
-                        .map(this::toDto)
-                        .toList())
-                .orElse(List.of());
+    public @NotNull List<CartDto> getCarts(final @NotNull Long after, final int limit) {
+        return toDtos(cartRepo.findByIdGreaterThan(after, KeysetPage.of(limit)));
     }
 
     public @NotNull Optional<CartDto> getCartById(final @NotNull Long cartId) {
@@ -60,6 +69,7 @@ public class CartService {
     }
 
     @Transactional
+    @RetryOnConflict
     public @NotNull Optional<CartDto> updateCart(final @NotNull Long cartId, final @NotNull UpdateCartRequest request) {
         return cartRepo.findById(cartId)
                 .map(cart -> {
@@ -71,18 +81,17 @@ public class CartService {
     }
 
     @Transactional
+    @RetryOnConflict
     public boolean deleteCart(final @NotNull Long cartId) {
         return cartRepo.findById(cartId).map(cart -> {
-            final List<CartItem> cartItems = cartItemRepository.findByCartId(cartId);
-            if (cartItems != null && !cartItems.isEmpty()) {
-                cartItemRepository.deleteAll(cartItems);
-            }
+            cartItemRepository.deleteByCartId(cartId);
             cartRepo.delete(cart);
             return true;
         }).orElse(false);
     }
 
     @Transactional
+    @RetryOnConflict
     public @NotNull Optional<CartDto> addRecipeToCart(
             final @NotNull Long cartId,
             final @NotNull Long recipeId
@@ -91,26 +100,48 @@ public class CartService {
                 .flatMap(cart -> Optional.ofNullable(recipeIngredientRepo.findByRecipeId(recipeId))
                         .filter(ingredients -> !ingredients.isEmpty())
                         .map(ingredients -> {
-                            cartItemRepository.saveAll(ingredients.stream()
-                                    .map(ingredient -> new CartItem(cartId, ingredient.getProductId()))
-                                    .toList());
-                            updateCartTotalForCart(cart);
+                            adjustCartTotal(cart, addToCart(cartId, quantitiesByProduct(ingredients)));
                             return cart;
                         }))
                 .map(cartRepo::save)
                 .map(this::toDto);
     }
 
+    // all or nothing: empty when the cart or any of the recipes does not exist or has no ingredients,
+    // a recipe listed twice is added twice
     @Transactional
+    @RetryOnConflict
+    public @NotNull Optional<CartDto> addRecipesToCart(
+            final @NotNull Long cartId,
+            final @NotNull List<Long> recipeIds
+    ) {
+        return cartRepo.findById(cartId).flatMap(cart -> {
+            if (recipeIds.isEmpty()) {
+                return Optional.of(cart);
+            }
+            final Map<Long, List<RecipeIngredient>> ingredientsByRecipe = recipeIngredientRepo.findByRecipeIdIn(Set.copyOf(recipeIds))
+                    .stream()
+                    .collect(Collectors.groupingBy(RecipeIngredient::getRecipeId));
+            if (!ingredientsByRecipe.keySet().containsAll(recipeIds)) {
+                return Optional.empty();
+            }
+            adjustCartTotal(cart, addToCart(cartId, quantitiesByProduct(recipeIds.stream()
+                    .flatMap(recipeId -> ingredientsByRecipe.get(recipeId).stream())
+                    .toList())));
+            return Optional.of(cartRepo.save(cart));
+        }).map(this::toDto);
+    }
+
+    @Transactional
+    @RetryOnConflict
     public @NotNull Optional<CartDto> addProductToCart(
             final @NotNull Long cartId,
             final @NotNull Long productId
     ) {
         return cartRepo.findById(cartId)
-                .flatMap(cart -> productRepo.findById(productId)
+                .flatMap(cart -> productCache.get(productId)
                         .map(product -> {
-                            cartItemRepository.save(new CartItem(cartId, productId));
-                            updateCartTotalForCart(cart);
+                            adjustCartTotal(cart, addToCart(cartId, Map.of(productId, 1)));
                             return cart;
                         }))
                 .map(cartRepo::save)
@@ -118,6 +149,7 @@ public class CartService {
     }
 
     @Transactional
+    @RetryOnConflict
     public @NotNull Optional<CartDto> removeProductFromCart(
             final @NotNull Long cartId,
             final @NotNull Long productId
@@ -125,67 +157,143 @@ public class CartService {
         return cartRepo.findById(cartId)
                 .map(cart -> Optional.ofNullable(cartItemRepository.findByCartIdAndProductId(cartId, productId))
                         .map(cartItem -> {
-                            cartItemRepository.delete(cartItem);
-                            return cart;
+                            // one unit at a time, the line goes with the last one
+                            if (cartItem.getQuantity() > 1) {
+                                cartItem.setQuantity(cartItem.getQuantity() - 1);
+                                cartItemRepository.save(cartItem);
+                            } else {
+                                cartItemRepository.delete(cartItem);
+                            }
+                            productCache.get(productId)
+                                    .ifPresent(product -> adjustCartTotal(cart, -product.priceInCents()));
+                            return cartRepo.save(cart);
                         })
                         .orElse(cart))
-                .map(cart -> {
-                    updateCartTotalForCart(cart);
-                    return cartRepo.save(cart);
-                })
                 .map(this::toDto);
     }
 
     @Transactional
+    @RetryOnConflict
     public @NotNull Optional<CartDto> removeRecipeFromCart(
             final @NotNull Long cartId,
             final @NotNull Long recipeId
     ) {
         return cartRepo.findById(cartId).map(cart -> {
-            final List<RecipeIngredient> recipeIngredients = recipeIngredientRepo.findByRecipeId(recipeId);
-            if (recipeIngredients == null || recipeIngredients.isEmpty()) {
+            // priced before the units go, the mirror of add_recipe: its quantities come off, emptied lines go
+            final long removedInCents = cartItemRepository.sumRecipePriceInCentsByCartId(cartId, recipeId);
+            if (cartItemRepository.subtractRecipeQuantities(cartId, recipeId) == 0) {
                 return toDto(cart);
             }
+            cartItemRepository.deleteEmptyLinesByCartId(cartId);
+            adjustCartTotal(cart, -removedInCents);
+            return toDto(cartRepo.save(cart));
+        });
+    }
 
-            final List<CartItem> itemsToRemove = recipeIngredients.stream()
-                    .map(ingredient -> cartItemRepository.findByCartIdAndProductId(cartId, ingredient.getProductId()))
-                    .filter(Objects::nonNull)
-                    .toList();
+    // runs inside ProductService.updateProduct's transaction; totals were summed at the old price
+    void onPriceChanged(final @NotNull Long productId, final int deltaInCents) {
+        if (deltaInCents != 0) {
+            cartRepo.updateTotalsRepricingProduct(productId, deltaInCents);
+        }
+    }
 
-            if (!itemsToRemove.isEmpty()) {
-                cartItemRepository.deleteAll(itemsToRemove);
-            }
+    // runs inside ProductService.deleteProduct's transaction, before the product goes
+    void onProductDeleted(final @NotNull Long productId, final int priceInCents) {
+        cartRepo.updateTotalsRemovingProduct(productId, priceInCents);
+        cartItemRepository.deleteByProductId(productId);
+    }
 
-            updateCartTotalForCart(cart);
-            return toDto(cartRepo.save(cart));
-        });
+    // totals are maintained incrementally by the mutations above, reconciliation recomputes them from the items
+    @Transactional
+    @RetryOnConflict
+    public @NotNull Optional<CartDto> reconcileCartTotal(final @NotNull Long cartId) {
+        return cartRepo.findById(cartId)
+                .map(cart -> correctTotal(cart) ? cartRepo.save(cart) : cart)
+                .map(this::toDto);
+    }
+
+    // the carts whose total differs from their items, CartTotalReconciliationJob corrects them one at a time
+    public @NotNull List<Long> findDriftedCartIds() {
+        return cartRepo.findTotalDrifts().stream()
+                .map(CartTotalDrift::cartId)
+                .toList();
+    }
+
+    // true when the total had drifted and was corrected; each cart in its own transaction, so a cart that
+    // conflicts with a request does not roll back the corrections of the others
+    @Transactional
+    @RetryOnConflict
+    public boolean correctCartTotal(final @NotNull Long cartId) {
+        return cartRepo.findById(cartId)
+                .filter(this::correctTotal)
+                .map(cartRepo::save)
+                .isPresent();
     }
 
+    private boolean correctTotal(final @NotNull Cart cart) {
+        final int itemsTotalInCents = Math.toIntExact(cartItemRepository.sumPriceInCentsByCartId(requireNonNull(cart.getId())));
+        if (cart.getTotalInCents() == itemsTotalInCents) {
+            return false;
+        }
+        log.warn("Cart {} total drifted: stored={}, items={}", cart.getId(), cart.getTotalInCents(), itemsTotalInCents);
+        cart.setTotalInCents(itemsTotalInCents);
+        return true;
+    }
+
+    // upserts one line per product, raising the quantity of lines already in the cart; returns the price of what was added
+    private long addToCart(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities) {
+        cartLineWriter.addQuantities(cartId, quantities);
+        final Map<Long, CachedProduct> products = productCache.getAll(quantities.keySet());
+        return quantities.entrySet().stream()
+                .filter(entry -> products.containsKey(entry.getKey()))
+                .mapToLong(entry -> (long) products.get(entry.getKey()).priceInCents() * entry.getValue())
+                .sum();
+    }
+
+    static @NotNull Map<Long, Integer> quantitiesByProduct(final @NotNull List<RecipeIngredient> ingredients) {
+        return ingredients.stream()
+                .collect(Collectors.toMap(RecipeIngredient::getProductId, RecipeIngredient::getQuantity, Integer::sum, LinkedHashMap::new));
+    }
 
-    private void updateCartTotalForCart(final @NotNull Cart cart) {
-        cart.setTotalInCents(Optional.ofNullable(cartItemRepository.findByCartId(requireNonNull(cart.getId())))
-                .orElse(List.of())
+    static void adjustCartTotal(final @NotNull Cart cart, final long deltaInCents) {
+        // never below zero, a drifted total is fixed by the reconciliation job
+        final long totalInCents = cart.getTotalInCents() + deltaInCents;
+        if (totalInCents < 0) {
+            log.warn("Cart {} total would go below zero: stored={}, delta={}; clamped, drift is left to reconciliation",
+                    cart.getId(), cart.getTotalInCents(), deltaInCents);
+        }
+        cart.setTotalInCents(Math.toIntExact(Math.max(0L, totalInCents)));
+    }
+
+    private @NotNull CartDto toDto(final @NotNull Cart cart) {
+        return toDtos(List.of(cart)).get(0);
+    }
+
+    // one query for all the carts' items, products come from the cache and a single query for the misses
+    private @NotNull List<CartDto> toDtos(final @NotNull List<Cart> carts) {
+        if (carts.isEmpty()) {
+            return List.of();
+        }
+        final Map<Long, List<CartItem>> itemsByCart = cartItemRepository.findByCartIdInOrderById(carts.stream()
+                        .map(cart -> requireNonNull(cart.getId()))
+                        .toList())
                 .stream()
-                .map(item -> productRepo.findById(item.getProductId()))
-                .flatMap(Optional::stream)
-                .mapToInt(Product::getPriceInCents)
-                .sum());
-    }
-
-    private CartDto toDto(final @NotNull Cart cart) {
-        return new CartDto(
-                requireNonNull(cart.getId()),
-                cart.getTotalInCents(),
-                Optional.ofNullable(cartItemRepository.findByCartId(requireNonNull(cart.getId())))
-                        .orElse(List.of())
-                        .stream()
-                        .map(this::toDto)
-                        .toList());
-    }
-
-    private @NotNull ProductDto toDto(final @NotNull CartItem cartItem) {
-        return productRepo.findById(cartItem.getProductId())
-                .map(p -> new ProductDto(requireNonNull(p.getId()), p.getName(), p.getPriceInCents()))
-                .orElseThrow(() -> new RuntimeException("Product not found for cart item: " + cartItem.getProductId()));
+                .collect(Collectors.groupingBy(CartItem::getCartId));
+        final Set<Long> productIds = itemsByCart.values().stream()
+                .flatMap(List::stream)
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet());
+        final Map<Long, CachedProduct> products = productCache.getAll(productIds);
+        return carts.stream()
+                .map(cart -> new CartDto(
+                        requireNonNull(cart.getId()),
+                        cart.getTotalInCents(),
+                        itemsByCart.getOrDefault(cart.getId(), List.of())
+                                .stream()
+                                .map(cartItem -> Optional.ofNullable(products.get(cartItem.getProductId()))
+                                        .map(product -> new ProductDto(product.id(), product.name(), product.priceInCents(), cartItem.getQuantity()))
+                                        .orElseThrow(() -> new RuntimeException("Product not found for cart item: " + cartItem.getProductId())))
+                                .toList()))
+                .toList();
     }
 }
\ No newline at end of file
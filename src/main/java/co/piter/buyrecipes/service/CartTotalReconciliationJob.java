@@ -0,0 +1,59 @@
+package co.piter.buyrecipes.service;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+// runs on every instance sharing the database; that is safe, each cart is corrected in its own transaction under its
+// version, so two instances correcting the same cart end with one correction and a retry that finds nothing to do.
+// Set buyrecipes.carts.reconciliation.enabled to false on all instances but one to save the duplicate scans
+@Singleton
+@Requires(property = "buyrecipes.carts.reconciliation.enabled", notEquals = StringUtils.FALSE)
+public class CartTotalReconciliationJob {
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(CartTotalReconciliationJob.class);
+
+    private final @NotNull CartService cartService;
+
+    public CartTotalReconciliationJob(final @NotNull CartService cartService) {
+        this.cartService = requireNonNull(cartService);
+    }
+
+    @Scheduled(
+            fixedDelay = "${buyrecipes.carts.reconciliation.interval:1h}",
+            initialDelay = "${buyrecipes.carts.reconciliation.initial-delay:5m}")
+    public void reconcile() {
+        final List<Long> drifted;
+        try {
+            drifted = cartService.findDriftedCartIds();
+        } catch (final RuntimeException e) {
+            log.error("Cart total reconciliation failed", e);
+            return;
+        }
+        final List<Long> corrected = new ArrayList<>();
+        for (final Long cartId : drifted) {
+            try {
+                if (cartService.correctCartTotal(cartId)) {
+                    corrected.add(cartId);
+                }
+            } catch (final RuntimeException e) {
+                // the cart keeps losing to concurrent mutations, the next run picks it up again
+                log.error("Cart {} total reconciliation failed", cartId, e);
+            }
+        }
+        if (corrected.isEmpty()) {
+            log.debug("Cart totals verified, no drift");
+        } else {
+            log.warn("Corrected the totals of {} carts: {}", corrected.size(), corrected);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.entity.CartItem;
+import co.piter.buyrecipes.repo.CartItemRepository;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+// portable read then write, a concurrent insert of the same line fails on uk_cart_items_cart_product
+@Singleton
+@Requires(property = "datasources.default.dialect", notEquals = "POSTGRES")
+class JpaCartLineWriter implements CartLineWriter {
+
+    private final @NotNull CartItemRepository cartItemRepository;
+
+    JpaCartLineWriter(final @NotNull CartItemRepository cartItemRepository) {
+        this.cartItemRepository = requireNonNull(cartItemRepository);
+    }
+
+    @Override
+    public void addQuantities(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities) {
+        final Map<Long, CartItem> lines = cartItemRepository.findByCartIdAndProductIdIn(cartId, quantities.keySet())
+                .stream()
+                .collect(Collectors.toMap(CartItem::getProductId, Function.identity()));
+        cartItemRepository.saveAll(quantities.entrySet().stream()
+                .map(entry -> Optional.ofNullable(lines.get(entry.getKey()))
+                        .map(line -> {
+                            line.setQuantity(line.getQuantity() + entry.getValue());
+                            return line;
+                        })
+                        .orElseGet(() -> new CartItem(cartId, entry.getKey(), entry.getValue())))
+                .toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package co.piter.buyrecipes.service;
+
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import org.jetbrains.annotations.NotNull;
+
+// list endpoints page by id: ?after=<last id seen>&limit=<page size>
+public final class KeysetPage {
+    public static final String DEFAULT_LIMIT = "100";
+    public static final int MAX_LIMIT = 1000;
+
+    private KeysetPage() {
+        // no instances
+    }
+
+    // the cursor goes in the where clause, so the page itself always starts at offset 0
+    static @NotNull Pageable of(final int limit) {
+        return Pageable.from(0, Math.max(1, Math.min(limit, MAX_LIMIT)), Sort.of(Sort.Order.asc("id")));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package co.piter.buyrecipes.service;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static java.util.Objects.requireNonNull;
+
+// one INSERT ... ON CONFLICT for all the lines, no read first and atomic against concurrent adds to the same line
+@Singleton
+@Requires(property = "datasources.default.dialect", value = "POSTGRES")
+class PostgresCartLineWriter implements CartLineWriter {
+
+    private final @NotNull EntityManager entityManager;
+
+    PostgresCartLineWriter(final @NotNull EntityManager entityManager) {
+        this.entityManager = requireNonNull(entityManager);
+    }
+
+    @Override
+    public void addQuantities(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        final List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        final Query upsert = entityManager.createNativeQuery(upsertSql(lines.size()));
+        upsert.setParameter("cartId", cartId);
+        for (int i = 0; i < lines.size(); i++) {
+            upsert.setParameter("productId" + i, lines.get(i).getKey());
+            upsert.setParameter("quantity" + i, lines.get(i).getValue());
+        }
+        upsert.executeUpdate();
+    }
+
+    // each new line takes a whole pooled-lo block of cart_items_seq, as hibernate does, so the two never hand out the same id
+    static @NotNull String upsertSql(final int lineCount) {
+        final StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < lineCount; i++) {
+            values.add("(nextval('cart_items_seq'), :cartId, :productId" + i + ", :quantity" + i + ", 0)");
+        }
+        return "INSERT INTO cart_items (id, cart_id, product_id, quantity, version) VALUES " + values
+                + " ON CONFLICT (cart_id, product_id)"
+                + " DO UPDATE SET quantity = cart_items.quantity + EXCLUDED.quantity, version = cart_items.version + 1";
+    }
+}
\ No newline at end of file
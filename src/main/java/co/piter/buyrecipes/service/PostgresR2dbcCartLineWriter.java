@@ -0,0 +1,35 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.repo.ReactivePostgresCartLineRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+// the ON CONFLICT upsert of PostgresCartLineWriter, one statement per line in product order so that two carts'
+// upserts lock their lines in the same order
+@Singleton
+@Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+@Requires(property = "r2dbc.datasources.reactive.dialect", value = "POSTGRES")
+class PostgresR2dbcCartLineWriter implements ReactiveCartLineWriter {
+
+    private final @NotNull ReactivePostgresCartLineRepository cartLineRepository;
+
+    PostgresR2dbcCartLineWriter(final @NotNull ReactivePostgresCartLineRepository cartLineRepository) {
+        this.cartLineRepository = requireNonNull(cartLineRepository);
+    }
+
+    @Override
+    public @NotNull Mono<Void> addQuantities(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities) {
+        return Flux.fromIterable(quantities.entrySet())
+                .sort(Map.Entry.comparingByKey())
+                .concatMap(line -> cartLineRepository.upsertQuantity(cartId, line.getKey(), line.getValue()))
+                .then();
+    }
+}
\ No newline at end of file
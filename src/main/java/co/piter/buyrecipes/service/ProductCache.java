@@ -0,0 +1,80 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.dto.ProductCacheStatsDto;
+import co.piter.buyrecipes.repo.ProductRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+// read-through cache in front of ProductRepo, ProductService invalidates on update/delete; the cache is per process,
+// with several instances (prod) another instance's change is only seen once the entry expires, hence the shorter
+// expire-after-write in application-prod.yml
+@Singleton
+public class ProductCache {
+
+    private final @NotNull ProductRepo productRepo;
+    private final @NotNull Cache<Long, CachedProduct> cache;
+
+    public ProductCache(
+            final @NotNull ProductRepo productRepo,
+            @Value("${buyrecipes.products.cache.maximum-size:10000}") final long maximumSize,
+            @Value("${buyrecipes.products.cache.expire-after-write:10m}") final @NotNull Duration expireAfterWrite
+    ) {
+        this.productRepo = requireNonNull(productRepo);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(requireNonNull(expireAfterWrite)) // bounds staleness if an invalidation races a reload
+                .recordStats()
+                .build();
+    }
+
+    // unknown products are not cached, the next lookup goes to the database again
+    @NotNull Optional<CachedProduct> get(final @NotNull Long productId) {
+        return Optional.ofNullable(cache.get(productId, id -> productRepo.findById(id)
+                .map(CachedProduct::of)
+                .orElse(null)));
+    }
+
+    // a single query for all the misses, unknown products are absent from the result
+    @NotNull Map<Long, CachedProduct> getAll(final @NotNull Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return cache.getAll(productIds, missing -> productRepo.findByIdIn(Set.copyOf(missing)).stream()
+                .map(CachedProduct::of)
+                .collect(Collectors.toMap(CachedProduct::id, Function.identity())));
+    }
+
+    void invalidate(final @NotNull Long productId) {
+        cache.invalidate(productId);
+    }
+
+    @TransactionalEventListener(TransactionalEventListener.TransactionPhase.AFTER_COMMIT)
+    void onProductChanged(final @NotNull ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    public @NotNull ProductCacheStatsDto getStats() {
+        final CacheStats stats = cache.stats();
+        return new ProductCacheStatsDto(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
\ No newline at end of file
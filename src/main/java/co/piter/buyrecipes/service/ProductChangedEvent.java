@@ -0,0 +1,7 @@
+package co.piter.buyrecipes.service;
+
+import org.jetbrains.annotations.NotNull;
+
+// published by ProductService when a product is updated or deleted, ProductCache drops it once the change commits
+record ProductChangedEvent(@NotNull Long productId) {
+}
\ No newline at end of file
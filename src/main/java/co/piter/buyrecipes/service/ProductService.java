@@ -1,10 +1,15 @@
 package co.piter.buyrecipes.service;
 
 import co.piter.buyrecipes.dto.CreateProductRequest;
+import co.piter.buyrecipes.dto.ProductCacheStatsDto;
 import co.piter.buyrecipes.dto.ProductDto;
 import co.piter.buyrecipes.dto.UpdateProductRequest;
 import co.piter.buyrecipes.entity.Product;
+import co.piter.buyrecipes.metrics.Measured;
 import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.tracing.Traced;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import org.jetbrains.annotations.NotNull;
@@ -15,12 +20,31 @@ import java.util.Optional;
 import static java.util.Objects.requireNonNull;
 
 @Singleton
+@Measured
+@Traced
 public class ProductService {
 
     private final @NotNull ProductRepo productRepo;
+    private final @NotNull ProductCache productCache;
+    private final @NotNull RecipeCostService recipeCostService;
+    private final @NotNull CartService cartService;
+    private final @NotNull RecipeIngredientRepo recipeIngredientRepo;
+    private final @NotNull ApplicationEventPublisher<ProductChangedEvent> productChangedPublisher;
 
-    public ProductService(final @NotNull ProductRepo productRepo) {
+    public ProductService(
+            final @NotNull ProductRepo productRepo,
+            final @NotNull ProductCache productCache,
+            final @NotNull RecipeCostService recipeCostService,
+            final @NotNull CartService cartService,
+            final @NotNull RecipeIngredientRepo recipeIngredientRepo,
+            final @NotNull ApplicationEventPublisher<ProductChangedEvent> productChangedPublisher
+    ) {
         this.productRepo = requireNonNull(productRepo);
+        this.productCache = requireNonNull(productCache);
+        this.recipeCostService = requireNonNull(recipeCostService);
+        this.cartService = requireNonNull(cartService);
+        this.recipeIngredientRepo = requireNonNull(recipeIngredientRepo);
+        this.productChangedPublisher = requireNonNull(productChangedPublisher);
     }
 
     @Transactional
@@ -28,23 +52,26 @@ public class ProductService {
         return toDto(productRepo.save(new Product(request.getName(), request.getPriceInCents())));
     }
 
-    public @NotNull List<ProductDto> getAllProducts() {
-        return productRepo.findAll().stream()
+    public @NotNull List<ProductDto> getProducts(final @NotNull Long after, final int limit) {
+        return productRepo.findByIdGreaterThan(after, KeysetPage.of(limit)).stream()
                 .map(this::toDto)
                 .toList();
     }
 
     public @NotNull Optional<ProductDto> getProductById(final @NotNull Long id) {
-        return productRepo.findById(id).map(this::toDto);
+        return productCache.get(id).map(CachedProduct::toDto);
     }
 
     @Transactional
     public @NotNull Optional<ProductDto> updateProduct(final @NotNull Long id, final @NotNull UpdateProductRequest request) {
         return productRepo.findById(id)
                 .map(product -> {
+                    recipeCostService.onPriceChanged(id, (long) request.getPriceInCents() - product.getPriceInCents());
+                    cartService.onPriceChanged(id, request.getPriceInCents() - product.getPriceInCents());
                     product.setName(request.getName());
                     product.setPriceInCents(request.getPriceInCents());
                     Product savedProduct = productRepo.save(product);
+                    invalidateCachedProduct(id);
                     return toDto(savedProduct);
                 });
     }
@@ -52,11 +79,27 @@ public class ProductService {
     @Transactional
     public boolean deleteProduct(final @NotNull Long id) {
         return productRepo.findById(id).map(product -> {
+            // costs and totals are adjusted from the rows about to be removed, so they go first
+            recipeCostService.onPriceChanged(id, -product.getPriceInCents());
+            cartService.onProductDeleted(id, product.getPriceInCents());
+            recipeIngredientRepo.deleteByProductId(id);
             productRepo.delete(product);
+            invalidateCachedProduct(id);
             return true;
         }).orElse(false);
     }
 
+    public @NotNull ProductCacheStatsDto getCacheStats() {
+        return productCache.getStats();
+    }
+
+    // now, and again after commit: a read in between reloads the uncommitted change's old row, which would otherwise
+    // stay cached until expire-after-write
+    private void invalidateCachedProduct(final @NotNull Long id) {
+        productCache.invalidate(id);
+        productChangedPublisher.publishEvent(new ProductChangedEvent(id));
+    }
+
     private @NotNull ProductDto toDto(final @NotNull Product product) {
         return new ProductDto(requireNonNull(product.getId()), product.getName(), product.getPriceInCents());
     }
@@ -0,0 +1,49 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.entity.CartItem;
+import co.piter.buyrecipes.repo.ReactiveCartItemRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+// portable read then write like JpaCartLineWriter, a concurrent insert of the same line fails on uk_cart_items_cart_product
+@Singleton
+@Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+@Requires(property = "r2dbc.datasources.reactive.dialect", notEquals = "POSTGRES")
+class R2dbcCartLineWriter implements ReactiveCartLineWriter {
+
+    private final @NotNull ReactiveCartItemRepository cartItemRepository;
+
+    R2dbcCartLineWriter(final @NotNull ReactiveCartItemRepository cartItemRepository) {
+        this.cartItemRepository = requireNonNull(cartItemRepository);
+    }
+
+    @Override
+    public @NotNull Mono<Void> addQuantities(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities) {
+        return cartItemRepository.findByCartIdAndProductIdIn(cartId, quantities.keySet())
+                .collectMap(CartItem::getProductId)
+                .flatMap(lines -> {
+                    final List<CartItem> updated = new ArrayList<>();
+                    final List<CartItem> inserted = new ArrayList<>();
+                    quantities.forEach((productId, quantity) -> {
+                        final CartItem line = lines.get(productId);
+                        if (line != null) {
+                            line.setQuantity(line.getQuantity() + quantity);
+                            updated.add(line);
+                        } else {
+                            inserted.add(new CartItem(cartId, productId, quantity));
+                        }
+                    });
+                    return Flux.concat(cartItemRepository.updateAll(updated), cartItemRepository.saveAll(inserted)).then();
+                });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package co.piter.buyrecipes.service;
+
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// CartLineWriter over R2DBC, for ReactiveCartService
+public interface ReactiveCartLineWriter {
+
+    @NotNull Mono<Void> addQuantities(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities);
+}
\ No newline at end of file
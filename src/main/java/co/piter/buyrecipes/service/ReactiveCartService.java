@@ -0,0 +1,173 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.ProductDto;
+import co.piter.buyrecipes.entity.Cart;
+import co.piter.buyrecipes.entity.CartItem;
+import co.piter.buyrecipes.entity.Product;
+import co.piter.buyrecipes.repo.ReactiveCartItemRepository;
+import co.piter.buyrecipes.repo.ReactiveCartRepo;
+import co.piter.buyrecipes.repo.ReactiveProductRepo;
+import co.piter.buyrecipes.repo.ReactiveRecipeIngredientRepo;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+// the cart session hot path over R2DBC: reads, adding products and recipes, removing products;
+// same rules as CartService and conflicts retried the same way, no thread or JDBC connection is held while the
+// database works.
+// Products are read from the database rather than ProductCache, whose loads block
+@Singleton
+@Requires(property = "buyrecipes.data.reactive", value = StringUtils.TRUE)
+public class ReactiveCartService {
+
+    private final @NotNull ReactiveCartRepo cartRepo;
+    private final @NotNull ReactiveCartItemRepository cartItemRepository;
+    private final @NotNull ReactiveProductRepo productRepo;
+    private final @NotNull ReactiveRecipeIngredientRepo recipeIngredientRepo;
+    private final @NotNull ReactiveCartLineWriter cartLineWriter;
+
+    public ReactiveCartService(
+            final @NotNull ReactiveCartRepo cartRepo,
+            final @NotNull ReactiveCartItemRepository cartItemRepository,
+            final @NotNull ReactiveProductRepo productRepo,
+            final @NotNull ReactiveRecipeIngredientRepo recipeIngredientRepo,
+            final @NotNull ReactiveCartLineWriter cartLineWriter
+    ) {
+        this.cartRepo = requireNonNull(cartRepo);
+        this.cartItemRepository = requireNonNull(cartItemRepository);
+        this.productRepo = requireNonNull(productRepo);
+        this.recipeIngredientRepo = requireNonNull(recipeIngredientRepo);
+        this.cartLineWriter = requireNonNull(cartLineWriter);
+    }
+
+    public @NotNull Mono<List<CartDto>> getCarts(final @NotNull Long after, final int limit) {
+        return cartRepo.findByIdGreaterThan(after, KeysetPage.of(limit))
+                .collectList()
+                .flatMap(this::toDtos);
+    }
+
+    public @NotNull Mono<CartDto> getCartById(final @NotNull Long cartId) {
+        return cartRepo.findById(cartId).flatMap(this::toDto);
+    }
+
+    @Transactional("reactive")
+    @RetryOnConflict
+    public @NotNull Mono<CartDto> addRecipeToCart(final @NotNull Long cartId, final @NotNull Long recipeId) {
+        return cartRepo.findById(cartId)
+                .flatMap(cart -> recipeIngredientRepo.findByRecipeId(recipeId)
+                        .collectList()
+                        .filter(ingredients -> !ingredients.isEmpty())
+                        .flatMap(ingredients -> addToCart(cartId, CartService.quantitiesByProduct(ingredients)))
+                        .map(deltaInCents -> {
+                            CartService.adjustCartTotal(cart, deltaInCents);
+                            return cart;
+                        }))
+                .flatMap(cartRepo::update)
+                .flatMap(this::toDto);
+    }
+
+    @Transactional("reactive")
+    @RetryOnConflict
+    public @NotNull Mono<CartDto> addProductToCart(final @NotNull Long cartId, final @NotNull Long productId) {
+        return cartRepo.findById(cartId)
+                .flatMap(cart -> productRepo.findById(productId)
+                        .flatMap(product -> cartLineWriter.addQuantities(cartId, Map.of(productId, 1))
+                                .then(Mono.fromSupplier(() -> {
+                                    CartService.adjustCartTotal(cart, product.getPriceInCents());
+                                    return cart;
+                                }))))
+                .flatMap(cartRepo::update)
+                .flatMap(this::toDto);
+    }
+
+    @Transactional("reactive")
+    @RetryOnConflict
+    public @NotNull Mono<CartDto> removeProductFromCart(final @NotNull Long cartId, final @NotNull Long productId) {
+        return cartRepo.findById(cartId)
+                .flatMap(cart -> cartItemRepository.findByCartIdAndProductId(cartId, productId)
+                        .flatMap(cartItem -> {
+                            // one unit at a time, the line goes with the last one
+                            final Mono<Void> removed;
+                            if (cartItem.getQuantity() > 1) {
+                                cartItem.setQuantity(cartItem.getQuantity() - 1);
+                                removed = cartItemRepository.update(cartItem).then();
+                            } else {
+                                removed = cartItemRepository.delete(cartItem).then();
+                            }
+                            return removed
+                                    .then(productRepo.findById(productId))
+                                    .map(product -> {
+                                        CartService.adjustCartTotal(cart, -product.getPriceInCents());
+                                        return cart;
+                                    })
+                                    .defaultIfEmpty(cart)
+                                    .flatMap(cartRepo::update);
+                        })
+                        .defaultIfEmpty(cart))
+                .flatMap(this::toDto);
+    }
+
+    // upserts one line per product and returns the price of what was added, see CartService.addToCart
+    private @NotNull Mono<Long> addToCart(final @NotNull Long cartId, final @NotNull Map<Long, Integer> quantities) {
+        return productRepo.findByIdIn(quantities.keySet())
+                .collectMap(Product::getId, Product::getPriceInCents)
+                .flatMap(prices -> cartLineWriter.addQuantities(cartId, quantities).thenReturn(quantities.entrySet().stream()
+                        .filter(entry -> prices.containsKey(entry.getKey()))
+                        .mapToLong(entry -> (long) prices.get(entry.getKey()) * entry.getValue())
+                        .sum()));
+    }
+
+    private @NotNull Mono<CartDto> toDto(final @NotNull Cart cart) {
+        return toDtos(List.of(cart)).map(dtos -> dtos.get(0));
+    }
+
+    // one query for all the carts' items and one for their products
+    private @NotNull Mono<List<CartDto>> toDtos(final @NotNull List<Cart> carts) {
+        if (carts.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return cartItemRepository.findByCartIdInOrderById(carts.stream()
+                        .map(cart -> requireNonNull(cart.getId()))
+                        .toList())
+                .collectList()
+                .flatMap(items -> {
+                    final Set<Long> productIds = items.stream()
+                            .map(CartItem::getProductId)
+                            .collect(Collectors.toSet());
+                    final Mono<Map<Long, Product>> products = productIds.isEmpty()
+                            ? Mono.just(Map.of())
+                            : productRepo.findByIdIn(productIds).collectMap(Product::getId);
+                    return products.map(productsById -> {
+                        final Map<Long, List<CartItem>> itemsByCart = items.stream()
+                                .collect(Collectors.groupingBy(CartItem::getCartId));
+                        return carts.stream()
+                                .map(cart -> new CartDto(
+                                        requireNonNull(cart.getId()),
+                                        cart.getTotalInCents(),
+                                        itemsByCart.getOrDefault(cart.getId(), List.of())
+                                                .stream()
+                                                .map(cartItem -> Optional.ofNullable(productsById.get(cartItem.getProductId()))
+                                                        .map(product -> new ProductDto(
+                                                                requireNonNull(product.getId()),
+                                                                product.getName(),
+                                                                product.getPriceInCents(),
+                                                                cartItem.getQuantity()))
+                                                        .orElseThrow(() -> new RuntimeException("Product not found for cart item: " + cartItem.getProductId())))
+                                                .toList()))
+                                .toList();
+                    });
+                });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.dto.RecipeCostDto;
+import co.piter.buyrecipes.entity.RecipeCost;
+import co.piter.buyrecipes.entity.RecipeIngredient;
+import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.RecipeCostRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRow;
+import co.piter.buyrecipes.tracing.Traced;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Optional;
+
+import static co.piter.buyrecipes.entity.RecipeIngredient.DEFAULT_QUANTITY;
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+
+// recipe costs are stored and adjusted by deltas, the on* hooks run inside the caller's transaction
+@Singleton
+@Traced
+public class RecipeCostService {
+
+    // same sums as computeRecipeCost, an ingredient whose product is gone counts as zero
+    static final String BACKFILL_SQL = """
+            INSERT INTO recipe_costs (recipe_id, cost_in_cents, weighted_cost_in_cents)
+            SELECT r.id,
+                   COALESCE(SUM(p.price_in_cents), 0),
+                   COALESCE(SUM(CAST(p.price_in_cents AS BIGINT) * COALESCE(ri.quantity, 1)), 0)
+            FROM recipes r
+            LEFT JOIN recipe_ingredients ri ON ri.recipe_id = r.id
+            LEFT JOIN products p ON p.id = ri.product_id
+            WHERE NOT EXISTS (SELECT 1 FROM recipe_costs rc WHERE rc.recipe_id = r.id)
+            GROUP BY r.id""";
+
+    private final @NotNull RecipeCostRepo recipeCostRepo;
+    private final @NotNull RecipeIngredientRepo recipeIngredientRepo;
+    private final @NotNull ProductRepo productRepo;
+    private final @NotNull EntityManager entityManager;
+
+    public RecipeCostService(
+            final @NotNull RecipeCostRepo recipeCostRepo,
+            final @NotNull RecipeIngredientRepo recipeIngredientRepo,
+            final @NotNull ProductRepo productRepo,
+            final @NotNull EntityManager entityManager
+    ) {
+        this.recipeCostRepo = requireNonNull(recipeCostRepo);
+        this.recipeIngredientRepo = requireNonNull(recipeIngredientRepo);
+        this.productRepo = requireNonNull(productRepo);
+        this.entityManager = requireNonNull(entityManager);
+    }
+
+    // never writes: a recipe without a stored cost, one that DataLoader has not backfilled yet, gets it computed
+    public @NotNull Optional<RecipeCostDto> getRecipeCost(final @NotNull Long recipeId) {
+        return recipeCostRepo.findById(recipeId)
+                .or(() -> computeRecipeCost(recipeId))
+                .map(RecipeCostService::toDto);
+    }
+
+    // stores the cost of every recipe that has none, those seeded or generated straight through the repositories and
+    // those created before costs were tracked; one statement, run by DataLoader at startup; returns the rows inserted
+    @Transactional
+    public int backfillRecipeCosts() {
+        return entityManager.createNativeQuery(BACKFILL_SQL).executeUpdate();
+    }
+
+    void onRecipeCreated(final @NotNull Long recipeId) {
+        recipeCostRepo.save(new RecipeCost(recipeId, 0L, 0L));
+    }
+
+    void onRecipeDeleted(final @NotNull Long recipeId) {
+        recipeCostRepo.deleteById(recipeId);
+    }
+
+    void onIngredientAdded(final @NotNull RecipeIngredient ingredient) {
+        updateRecipeCost(ingredient, 1);
+    }
+
+    void onIngredientRemoved(final @NotNull RecipeIngredient ingredient) {
+        updateRecipeCost(ingredient, -1);
+    }
+
+    void onPriceChanged(final @NotNull Long productId, final long priceDeltaInCents) {
+        if (priceDeltaInCents != 0) {
+            recipeCostRepo.updateCostByProductPriceChange(productId, priceDeltaInCents);
+        }
+    }
+
+    // ingredients whose product no longer exists do not count, same as the joined recipe reads
+    private void updateRecipeCost(final @NotNull RecipeIngredient ingredient, final int sign) {
+        productRepo.findById(ingredient.getProductId()).ifPresent(product -> {
+            final long priceInCents = (long) sign * product.getPriceInCents();
+            recipeCostRepo.updateCostByRecipeId(ingredient.getRecipeId(), priceInCents, priceInCents * ingredient.getQuantity());
+        });
+    }
+
+    private @NotNull Optional<RecipeCost> computeRecipeCost(final @NotNull Long recipeId) {
+        final List<RecipeIngredientRow> rows = recipeIngredientRepo.findRecipeRowsByRecipeId(recipeId);
+        if (rows.isEmpty()) {
+            return Optional.empty(); // no such recipe
+        }
+        final List<RecipeIngredientRow> ingredients = rows.stream()
+                .filter(row -> row.productId() != null)
+                .toList();
+        return Optional.of(new RecipeCost(
+                recipeId,
+                ingredients.stream()
+                        .mapToLong(row -> requireNonNullElse(row.priceInCents(), 0))
+                        .sum(),
+                ingredients.stream()
+                        .mapToLong(row -> (long) requireNonNullElse(row.priceInCents(), 0) * requireNonNullElse(row.quantity(), DEFAULT_QUANTITY))
+                        .sum()));
+    }
+
+    private static @NotNull RecipeCostDto toDto(final @NotNull RecipeCost recipeCost) {
+        return new RecipeCostDto(
+                requireNonNull(recipeCost.getRecipeId()),
+                recipeCost.getCostInCents(),
+                recipeCost.getWeightedCostInCents());
+    }
+}
\ No newline at end of file
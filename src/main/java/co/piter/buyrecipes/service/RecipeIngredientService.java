@@ -3,42 +3,46 @@ package co.piter.buyrecipes.service;
 import co.piter.buyrecipes.dto.CreateRecipeIngredientRequest;
 import co.piter.buyrecipes.dto.RecipeIngredientDto;
 import co.piter.buyrecipes.dto.UpdateRecipeIngredientRequest;
-import co.piter.buyrecipes.entity.Product;
 import co.piter.buyrecipes.entity.RecipeIngredient;
-import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.metrics.Measured;
 import co.piter.buyrecipes.repo.RecipeIngredientRepo;
 import co.piter.buyrecipes.repo.RecipeRepo;
+import co.piter.buyrecipes.tracing.Traced;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 @Singleton
+@Measured
+@Traced
 public class RecipeIngredientService {
 
     private final @NotNull RecipeIngredientRepo recipeIngredientRepo;
     private final @NotNull RecipeRepo recipeRepo;
-    private final @NotNull ProductRepo productRepo;
+    private final @NotNull ProductCache productCache;
+    private final @NotNull RecipeCostService recipeCostService;
 
     public RecipeIngredientService(
             final @NotNull RecipeIngredientRepo recipeIngredientRepo,
             final @NotNull RecipeRepo recipeRepo,
-            final @NotNull ProductRepo productRepo) {
+            final @NotNull ProductCache productCache,
+            final @NotNull RecipeCostService recipeCostService) {
         this.recipeIngredientRepo = requireNonNull(recipeIngredientRepo);
         this.recipeRepo = requireNonNull(recipeRepo);
-        this.productRepo = requireNonNull(productRepo);
+        this.productCache = requireNonNull(productCache);
+        this.recipeCostService = requireNonNull(recipeCostService);
     }
 
-    public @NotNull List<RecipeIngredientDto> getAllRecipeIngredients() {
-        return Optional.ofNullable(recipeIngredientRepo.findAll())
-                .orElse(List.of())
-                .stream()
-                .map(this::toDto)
-                .toList();
+    public @NotNull List<RecipeIngredientDto> getRecipeIngredients(final @NotNull Long after, final int limit) {
+        return toDtos(recipeIngredientRepo.findByIdGreaterThan(after, KeysetPage.of(limit)));
     }
 
     public @NotNull Optional<RecipeIngredientDto> getRecipeIngredientById(final @NotNull Long recipeIngredientId) {
@@ -46,19 +50,11 @@ public class RecipeIngredientService {
     }
 
     public @NotNull List<RecipeIngredientDto> getRecipeIngredientsByRecipeId(final @NotNull Long recipeId) {
-        return Optional.ofNullable(recipeIngredientRepo.findByRecipeId(recipeId))
-                .orElse(List.of())
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return toDtos(Optional.ofNullable(recipeIngredientRepo.findByRecipeId(recipeId)).orElse(List.of()));
     }
 
     public @NotNull List<RecipeIngredientDto> getRecipeIngredientsByProductId(final @NotNull Long productId) {
-        return Optional.ofNullable(recipeIngredientRepo.findByProductId(productId))
-                .orElse(List.of())
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return toDtos(Optional.ofNullable(recipeIngredientRepo.findByProductId(productId)).orElse(List.of()));
     }
 
     @Transactional
@@ -66,15 +62,17 @@ public class RecipeIngredientService {
         if (recipeRepo.findById(request.getRecipeId()).isEmpty()) {
             throw new RuntimeException("Recipe not found with id: " + request.getRecipeId());
         }
-        if (productRepo.findById(request.getProductId()).isEmpty()) {
+        if (productCache.get(request.getProductId()).isEmpty()) {
             throw new RuntimeException("Product not found with id: " + request.getProductId());
         }
-        return toDto(recipeIngredientRepo.save(
+        final RecipeIngredient ingredient = recipeIngredientRepo.save(
                 new RecipeIngredient(
                         request.getRecipeId(),
                         request.getProductId(),
                         request.getQuantity(),
-                        request.getUnit())));
+                        request.getUnit()));
+        recipeCostService.onIngredientAdded(ingredient);
+        return toDto(ingredient);
     }
 
     @Transactional
@@ -86,14 +84,17 @@ public class RecipeIngredientService {
                     if (recipeRepo.findById(request.getRecipeId()).isEmpty()) {
                         throw new RuntimeException("Recipe not found with id: " + request.getRecipeId());
                     }
-                    if (productRepo.findById(request.getProductId()).isEmpty()) {
+                    if (productCache.get(request.getProductId()).isEmpty()) {
                         throw new RuntimeException("Product not found with id: " + request.getProductId());
                     }
+                    recipeCostService.onIngredientRemoved(ingredient);
                     ingredient.setRecipeId(request.getRecipeId());
                     ingredient.setProductId(request.getProductId());
                     ingredient.setQuantity(request.getQuantity());
                     ingredient.setUnit(request.getUnit());
-                    return toDto(recipeIngredientRepo.save(ingredient));
+                    final RecipeIngredient saved = recipeIngredientRepo.save(ingredient);
+                    recipeCostService.onIngredientAdded(saved);
+                    return toDto(saved);
                 });
     }
 
@@ -101,18 +102,32 @@ public class RecipeIngredientService {
     public boolean deleteRecipeIngredient(final @NotNull Long recipeIngredientId) {
         return recipeIngredientRepo.findById(recipeIngredientId).map(ingredient -> {
             recipeIngredientRepo.delete(ingredient);
+            recipeCostService.onIngredientRemoved(ingredient);
             return true;
         }).orElse(false);
     }
 
+    private @NotNull List<RecipeIngredientDto> toDtos(final @NotNull List<RecipeIngredient> recipeIngredients) {
+        final Map<Long, CachedProduct> products = productCache.getAll(recipeIngredients.stream()
+                .map(RecipeIngredient::getProductId)
+                .collect(Collectors.toSet()));
+        return recipeIngredients.stream()
+                .map(recipeIngredient -> toDto(recipeIngredient, products.get(recipeIngredient.getProductId())))
+                .toList();
+    }
+
     private @NotNull RecipeIngredientDto toDto(final @NotNull RecipeIngredient recipeIngredient) {
+        return toDto(recipeIngredient, productCache.get(recipeIngredient.getProductId()).orElse(null));
+    }
+
+    private static @NotNull RecipeIngredientDto toDto(
+            final @NotNull RecipeIngredient recipeIngredient,
+            final @Nullable CachedProduct product) {
         return new RecipeIngredientDto(
                 requireNonNull(recipeIngredient.getId()),
                 recipeIngredient.getRecipeId(),
                 recipeIngredient.getProductId(),
-                productRepo.findById(recipeIngredient.getProductId())
-                        .map(Product::getName)
-                        .orElse(""),
+                product != null ? product.name() : "",
                 recipeIngredient.getQuantity(),
                 recipeIngredient.getUnit());
     }
@@ -5,51 +5,60 @@ import co.piter.buyrecipes.dto.ProductDto;
 import co.piter.buyrecipes.dto.RecipeDto;
 import co.piter.buyrecipes.dto.UpdateRecipeRequest;
 import co.piter.buyrecipes.entity.Recipe;
-import co.piter.buyrecipes.entity.RecipeIngredient;
-import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.metrics.Measured;
 import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRow;
 import co.piter.buyrecipes.repo.RecipeRepo;
+import co.piter.buyrecipes.tracing.Traced;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static co.piter.buyrecipes.entity.RecipeIngredient.DEFAULT_QUANTITY;
 import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
 
 @Singleton
+@Measured
+@Traced
 public class RecipeService {
 
     private final @NotNull RecipeRepo recipeRepo;
     private final @NotNull RecipeIngredientRepo recipeIngredientRepo;
-    private final @NotNull ProductRepo productRepo;
+    private final @NotNull RecipeCostService recipeCostService;
 
     public RecipeService(
             final @NotNull RecipeRepo recipeRepo,
             final @NotNull RecipeIngredientRepo recipeIngredientRepo,
-            final @NotNull ProductRepo productRepo
+            final @NotNull RecipeCostService recipeCostService
     ) {
         this.recipeRepo = requireNonNull(recipeRepo);
         this.recipeIngredientRepo = requireNonNull(recipeIngredientRepo);
-        this.productRepo = requireNonNull(productRepo);
+        this.recipeCostService = requireNonNull(recipeCostService);
     }
 
-    public @NotNull List<RecipeDto> getAllRecipes() {
-        return Optional.ofNullable(recipeRepo.findAll())
-                .orElse(List.of())
-                .stream()
-                .map(this::toDto)
+    // one query for the page of recipes, one for all of their ingredients
+    public @NotNull List<RecipeDto> getRecipes(final @NotNull Long after, final int limit) {
+        final List<Long> recipeIds = recipeRepo.findByIdGreaterThan(after, KeysetPage.of(limit)).stream()
+                .map(Recipe::getId)
                 .toList();
+        return recipeIds.isEmpty() ? List.of() : toDtos(recipeIngredientRepo.findRecipeRowsByRecipeIdIn(recipeIds));
     }
 
     public @NotNull Optional<RecipeDto> getRecipeById(final @NotNull Long recipeId) {
-        return recipeRepo.findById(recipeId).map(this::toDto);
+        return toDtos(recipeIngredientRepo.findRecipeRowsByRecipeId(recipeId)).stream().findFirst();
     }
 
     @Transactional
     public @NotNull RecipeDto createRecipe(final @NotNull CreateRecipeRequest request) {
-        return toDto(recipeRepo.save(new Recipe(request.getName(), request.getDescription())));
+        final Recipe recipe = recipeRepo.save(new Recipe(request.getName(), request.getDescription()));
+        recipeCostService.onRecipeCreated(requireNonNull(recipe.getId()));
+        return new RecipeDto(requireNonNull(recipe.getId()), recipe.getName(), recipe.getDescription(), List.of());
     }
 
     @Transactional
@@ -57,7 +66,8 @@ public class RecipeService {
         return recipeRepo.findById(recipeId).map(recipe -> {
             recipe.setName(request.getName());
             recipe.setDescription(request.getDescription());
-            return toDto(recipeRepo.save(recipe));
+            final Recipe saved = recipeRepo.save(recipe);
+            return new RecipeDto(requireNonNull(saved.getId()), saved.getName(), saved.getDescription(), getRecipeIngredients(recipeId));
         });
     }
 
@@ -65,34 +75,44 @@ public class RecipeService {
     public boolean deleteRecipe(final @NotNull Long recipeId) {
         return recipeRepo.findById(recipeId).map(recipe -> {
             recipeIngredientRepo.deleteByRecipeId(recipeId);
+            recipeCostService.onRecipeDeleted(recipeId);
             recipeRepo.delete(recipe);
             return true;
         }).orElse(false);
     }
 
     public @NotNull List<ProductDto> getRecipeIngredients(final @NotNull Long recipeId) {
-        return Optional.ofNullable(recipeIngredientRepo.findByRecipeId(recipeId))
-                .orElse(List.of())
-                .stream()
-                .map(this::toDto)
+        return recipeIngredientRepo.findRecipeRowsByRecipeId(recipeId).stream()
+                .filter(row -> row.productId() != null)
+                .map(RecipeService::toDto)
                 .toList();
     }
 
-    private @NotNull RecipeDto toDto(final @NotNull Recipe recipe) {
-        return new RecipeDto(
-                requireNonNull(recipe.getId()),
-                recipe.getName(),
-                recipe.getDescription(),
-                getRecipeIngredients(recipe.getId()));
+    // rows come ordered by recipe, one per ingredient, so a single joined query yields every recipe
+    private static @NotNull List<RecipeDto> toDtos(final @NotNull List<RecipeIngredientRow> rows) {
+        return rows.stream()
+                .collect(Collectors.groupingBy(RecipeIngredientRow::recipeId, LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .stream()
+                .map(recipeRows -> new RecipeDto(
+                        recipeRows.get(0).recipeId(),
+                        recipeRows.get(0).recipeName(),
+                        recipeRows.get(0).recipeDescription(),
+                        recipeRows.stream()
+                                .filter(row -> row.productId() != null) // a recipe without ingredients comes as one row of nulls
+                                .map(RecipeService::toDto)
+                                .toList()))
+                .toList();
     }
 
-    private @NotNull ProductDto toDto(final @NotNull RecipeIngredient recipeIngredient) {
-        return productRepo.findById(recipeIngredient.getProductId())
-                .map(product -> new ProductDto(
-                        requireNonNull(product.getId()),
-                        product.getName(),
-                        product.getPriceInCents(),
-                        recipeIngredient.getQuantity()))
-                .orElseThrow(() -> new RuntimeException("Product not found for ingredient: " + recipeIngredient.getProductId()));
+    private static @NotNull ProductDto toDto(final @NotNull RecipeIngredientRow row) {
+        if (row.productName() == null) {
+            throw new RuntimeException("Product not found for ingredient: " + row.productId());
+        }
+        return new ProductDto(
+                requireNonNull(row.productId()),
+                row.productName(),
+                requireNonNullElse(row.priceInCents(), 0),
+                requireNonNullElse(row.quantity(), DEFAULT_QUANTITY));
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package co.piter.buyrecipes.service;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// reruns the annotated method, transaction included, when it loses an optimistic lock or a concurrent insert of the
+// same cart line; only for methods that open their own transaction, see RetryOnConflictInterceptor
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface RetryOnConflict {
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.metrics.StatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.order.Ordered;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import jakarta.inject.Singleton;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+// runs ahead of the transaction interceptor, so every attempt starts a fresh transaction and persistence context and
+// rereads the cart; between attempts it sleeps a random time up to initial-backoff doubled per attempt, capped at
+// max-backoff, so the losers of a race do not collide again. The last conflict is rethrown as it was.
+// A Mono is resubscribed instead, each subscription proceeding again and so opening its own transaction, after a
+// delay rather than a sleep. buyrecipes.conflicts counts conflicts per class and method, outcome retried or exhausted
+@Singleton
+@InterceptorBean(RetryOnConflict.class)
+class RetryOnConflictInterceptor implements MethodInterceptor<Object, Object> {
+
+    static final String CART_LINE_CONSTRAINT = "uk_cart_items_cart_product";
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(RetryOnConflictInterceptor.class);
+
+    private final @NotNull MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    RetryOnConflictInterceptor(
+            final @NotNull MeterRegistry meterRegistry,
+            @Value("${buyrecipes.carts.retry.max-attempts:5}") final int maxAttempts,
+            @Value("${buyrecipes.carts.retry.initial-backoff:5ms}") final @NotNull Duration initialBackoff,
+            @Value("${buyrecipes.carts.retry.max-backoff:100ms}") final @NotNull Duration maxBackoff
+    ) {
+        this.meterRegistry = requireNonNull(meterRegistry);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = requireNonNull(initialBackoff).toNanos();
+        this.maxBackoffNanos = requireNonNull(maxBackoff).toNanos();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public @Nullable Object intercept(final @NotNull MethodInvocationContext<Object, Object> context) {
+        if (Mono.class.isAssignableFrom(context.getReturnType().getType())) {
+            return interceptMono(context);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return context.proceed(this); // resumes the chain after this interceptor, again on each attempt
+            } catch (final RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                final String className = context.getDeclaringType().getSimpleName();
+                final String methodName = context.getMethodName();
+                if (attempt >= maxAttempts) {
+                    conflicts(className, methodName, "exhausted").increment();
+                    log.warn("{}.{} still conflicting after {} attempts", className, methodName, attempt);
+                    throw e;
+                }
+                conflicts(className, methodName, "retried").increment();
+                log.debug("{}.{} conflicted on attempt {}: {}", className, methodName, attempt, e.getMessage());
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+                StatementCounter.restartRecording(); // a request's query budget bounds one attempt, not the retries
+            }
+        }
+    }
+
+    private @NotNull Mono<Object> interceptMono(final @NotNull MethodInvocationContext<Object, Object> context) {
+        final String className = context.getDeclaringType().getSimpleName();
+        final String methodName = context.getMethodName();
+        return Mono.defer(() -> (Mono<Object>) context.proceed(this))
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    final Throwable failure = signal.failure();
+                    final long attempt = signal.totalRetries() + 1;
+                    if (!isConflict(failure)) {
+                        return Mono.error(failure);
+                    }
+                    if (attempt >= maxAttempts) {
+                        conflicts(className, methodName, "exhausted").increment();
+                        log.warn("{}.{} still conflicting after {} attempts", className, methodName, attempt);
+                        return Mono.error(failure);
+                    }
+                    conflicts(className, methodName, "retried").increment();
+                    log.debug("{}.{} conflicted on attempt {}: {}", className, methodName, attempt, failure.getMessage());
+                    final long backoff = backOffNanos((int) attempt);
+                    return backoff <= 0 ? Mono.just(attempt) : Mono.delay(Duration.ofNanos(backoff)).thenReturn(attempt);
+                })));
+    }
+
+    static boolean isConflict(final @NotNull Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException
+                    || cause instanceof io.micronaut.data.exceptions.OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+            // two requests adding the same product to a cart both insert its line, the loser finds it on retry
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(CART_LINE_CONSTRAINT)) {
+                return true;
+            }
+            // the same race over R2DBC, where the driver reports the constraint in the message
+            if (cause instanceof R2dbcDataIntegrityViolationException violation
+                    && violation.getMessage() != null
+                    && violation.getMessage().toLowerCase(Locale.ROOT).contains(CART_LINE_CONSTRAINT)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    // a random time up to initial-backoff doubled per attempt, capped at max-backoff
+    private long backOffNanos(final int attempt) {
+        final long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0L : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    // false when interrupted, the caller then gives up with the conflict at hand
+    private boolean backOff(final int attempt) {
+        final long backoff = backOffNanos(attempt);
+        if (backoff <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(backoff);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private @NotNull Counter conflicts(final @NotNull String className, final @NotNull String methodName, final @NotNull String outcome) {
+        return Counter.builder("buyrecipes.conflicts")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
\ No newline at end of file
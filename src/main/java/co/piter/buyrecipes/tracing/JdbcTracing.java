@@ -0,0 +1,38 @@
+package co.piter.buyrecipes.tracing;
+
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.order.Ordered;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.jdbc.datasource.JdbcTelemetry;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+
+import javax.sql.DataSource;
+
+import static java.util.Objects.requireNonNull;
+
+// wraps the connection pools, every statement executed becomes a span with its SQL under the caller's span;
+// first of the DataSource listeners, so the tracing wrapper sits right on the pool and Micronaut's transaction-aware
+// DelegatingDataSource goes around it: DataSourceResolver then resolves to this wrapper, not past the transaction
+// awareness, and the pool itself stays reachable with DataSource.unwrap
+@Singleton
+class JdbcTracing implements BeanCreatedEventListener<DataSource>, Ordered {
+
+    private final @NotNull BeanProvider<OpenTelemetry> openTelemetry;
+
+    JdbcTracing(final @NotNull BeanProvider<OpenTelemetry> openTelemetry) {
+        this.openTelemetry = requireNonNull(openTelemetry);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public @NotNull DataSource onCreated(final @NotNull BeanCreatedEvent<DataSource> event) {
+        return JdbcTelemetry.create(openTelemetry.get()).wrap(event.getBean());
+    }
+}
\ No newline at end of file
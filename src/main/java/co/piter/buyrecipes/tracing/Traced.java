@@ -0,0 +1,17 @@
+package co.piter.buyrecipes.tracing;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// a span per call of the annotated bean's methods, child of the current one, see TracedInterceptor
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface Traced {
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package co.piter.buyrecipes.tracing;
+
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+
+import static java.util.Objects.requireNonNull;
+
+// spans named <class>.<method>, so a request reads controller -> service -> repository -> the JDBC spans under them
+@Singleton
+@InterceptorBean(Traced.class)
+class TracedInterceptor implements MethodInterceptor<Object, Object> {
+
+    static final String INSTRUMENTATION_NAME = "co.piter.buyrecipes";
+
+    private final @NotNull Tracer tracer;
+
+    TracedInterceptor(final @NotNull OpenTelemetry openTelemetry) {
+        this.tracer = requireNonNull(openTelemetry).getTracer(INSTRUMENTATION_NAME);
+    }
+
+    @Override
+    public @Nullable Object intercept(final @NotNull MethodInvocationContext<Object, Object> context) {
+        if (Publisher.class.isAssignableFrom(context.getReturnType().getType())) {
+            return context.proceed(); // the work happens on subscription, after the call returns
+        }
+        final String className = context.getDeclaringType().getSimpleName();
+        final Span span = tracer.spanBuilder(className + "." + context.getMethodName())
+                .setAttribute("code.namespace", context.getDeclaringType().getName())
+                .setAttribute("code.function", context.getMethodName())
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return context.proceed();
+        } catch (final RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// replaces the IDENTITY ids with one sequence per table, handing out blocks of 50 (pooled-lo) so that
+// hibernate can batch inserts; in Java because each sequence starts after the ids already in the table
+public class V3__Id_sequences extends BaseJavaMigration {
+
+    static final int ALLOCATION_SIZE = 50; // as in the entities' @SequenceGenerator
+
+    private static final @NotNull List<String> TABLES = List.of("products", "recipes", "recipe_ingredients", "carts", "cart_items");
+
+    @Override
+    public void migrate(final @NotNull Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (final String table : TABLES) {
+                final long maxId;
+                try (ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                    max.next();
+                    maxId = max.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + (maxId + 1) + " INCREMENT BY " + ALLOCATION_SIZE);
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+-- Baseline: the schema hbm2ddl derived from the entities, databases created that way are baselined at this version.
+-- Only what hbm2ddl generated: identity ids, nullable columns, no foreign keys or indexes; V2 onwards evolve it
+
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    version BIGINT,
+    name VARCHAR(255),
+    price_in_cents INT
+);
+
+CREATE TABLE recipes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    version BIGINT,
+    name VARCHAR(255),
+    description VARCHAR(255)
+);
+
+CREATE TABLE recipe_ingredients (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    version BIGINT,
+    recipe_id BIGINT,
+    product_id BIGINT,
+    quantity INT,
+    unit VARCHAR(50)
+);
+
+CREATE TABLE carts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    version BIGINT,
+    total_in_cents INT
+);
+
+CREATE TABLE cart_items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cart_id BIGINT,
+    product_id BIGINT
+);
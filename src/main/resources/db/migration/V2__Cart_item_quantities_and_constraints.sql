@@ -0,0 +1,51 @@
+-- Brings a baseline (V1) database to the current entities: one cart line per product with a quantity,
+-- optimistic locking on cart lines, foreign keys, indexes and the precomputed recipe costs
+
+-- lines that point nowhere can't satisfy the foreign keys below, the products they held are gone
+DELETE FROM cart_items
+WHERE cart_id IS NULL OR product_id IS NULL
+   OR cart_id NOT IN (SELECT id FROM carts)
+   OR product_id NOT IN (SELECT id FROM products);
+DELETE FROM recipe_ingredients
+WHERE recipe_id IS NULL OR product_id IS NULL
+   OR recipe_id NOT IN (SELECT id FROM recipes)
+   OR product_id NOT IN (SELECT id FROM products);
+
+-- the baseline added a product again as another line, collapse those into the first line's quantity
+ALTER TABLE cart_items ADD COLUMN quantity INT DEFAULT 1 NOT NULL;
+UPDATE cart_items
+SET quantity = (SELECT COUNT(*) FROM cart_items d
+                WHERE d.cart_id = cart_items.cart_id AND d.product_id = cart_items.product_id)
+WHERE id = (SELECT MIN(k.id) FROM cart_items k
+            WHERE k.cart_id = cart_items.cart_id AND k.product_id = cart_items.product_id);
+DELETE FROM cart_items
+WHERE id > (SELECT MIN(k.id) FROM cart_items k
+            WHERE k.cart_id = cart_items.cart_id AND k.product_id = cart_items.product_id);
+
+ALTER TABLE cart_items ADD COLUMN version BIGINT DEFAULT 0;
+
+ALTER TABLE products ALTER COLUMN name SET NOT NULL;
+ALTER TABLE products ALTER COLUMN price_in_cents SET DEFAULT 0;
+ALTER TABLE recipes ALTER COLUMN name SET NOT NULL;
+ALTER TABLE recipe_ingredients ALTER COLUMN recipe_id SET NOT NULL;
+ALTER TABLE recipe_ingredients ALTER COLUMN product_id SET NOT NULL;
+ALTER TABLE recipe_ingredients ALTER COLUMN quantity SET DEFAULT 1;
+ALTER TABLE carts ALTER COLUMN total_in_cents SET DEFAULT 0;
+ALTER TABLE cart_items ALTER COLUMN cart_id SET NOT NULL;
+ALTER TABLE cart_items ALTER COLUMN product_id SET NOT NULL;
+
+ALTER TABLE recipe_ingredients ADD FOREIGN KEY (recipe_id) REFERENCES recipes(id);
+ALTER TABLE recipe_ingredients ADD FOREIGN KEY (product_id) REFERENCES products(id);
+ALTER TABLE cart_items ADD FOREIGN KEY (cart_id) REFERENCES carts(id);
+ALTER TABLE cart_items ADD FOREIGN KEY (product_id) REFERENCES products(id);
+ALTER TABLE cart_items ADD CONSTRAINT uk_cart_items_cart_product UNIQUE (cart_id, product_id);
+
+CREATE INDEX idx_recipe_ingredients_recipe ON recipe_ingredients (recipe_id);
+CREATE INDEX idx_recipe_ingredients_product ON recipe_ingredients (product_id);
+CREATE INDEX idx_cart_items_product ON cart_items (product_id);
+
+CREATE TABLE recipe_costs (
+    recipe_id BIGINT PRIMARY KEY,
+    cost_in_cents BIGINT DEFAULT 0,
+    weighted_cost_in_cents BIGINT DEFAULT 0
+);
@@ -0,0 +1,128 @@
+package co.piter.buyrecipes;
+
+import co.piter.buyrecipes.repo.CartItemRepository;
+import co.piter.buyrecipes.repo.CartRepo;
+import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.repo.RecipeRepo;
+import co.piter.buyrecipes.service.CartService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.jdbc.DataSourceResolver;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.assertj.core.api.Assertions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@MicronautTest
+@Property(name = "buyrecipes.generator.enabled", value = "true")
+@Property(name = "buyrecipes.generator.products", value = "500")
+@Property(name = "buyrecipes.generator.recipes", value = "50")
+@Property(name = "buyrecipes.generator.min-ingredients-per-recipe", value = "2")
+@Property(name = "buyrecipes.generator.max-ingredients-per-recipe", value = "6")
+@Property(name = "buyrecipes.generator.carts", value = "40")
+@Property(name = "buyrecipes.generator.max-items-per-cart", value = "10")
+@Property(name = "buyrecipes.generator.batch-size", value = "64")
+class CatalogGeneratorIT {
+
+    @Inject
+    @NotNull ProductRepo productRepo;
+
+    @Inject
+    @NotNull RecipeRepo recipeRepo;
+
+    @Inject
+    @NotNull RecipeIngredientRepo recipeIngredientRepo;
+
+    @Inject
+    @NotNull CartRepo cartRepo;
+
+    @Inject
+    @NotNull CartItemRepository cartItemRepository;
+
+    @Inject
+    @NotNull CartService cartService;
+
+    @Inject
+    @NotNull DataSource dataSource;
+
+    @Test
+    void testGeneratesConfiguredCatalogInsteadOfSampleData() {
+        Assertions.assertThat(productRepo.count()).isEqualTo(500);
+        Assertions.assertThat(recipeRepo.count()).isEqualTo(50);
+        Assertions.assertThat(recipeIngredientRepo.count()).isBetween(50L * 2, 50L * 6);
+        Assertions.assertThat(cartRepo.count()).isEqualTo(40);
+        Assertions.assertThat(cartItemRepository.count()).isLessThanOrEqualTo(40L * 10);
+        Assertions.assertThat(productRepo.findAll()).noneMatch(product -> product.getName().equals("Flour"));
+    }
+
+    @Test
+    void testGeneratedCartTotalsMatchTheirItems() {
+        Assertions.assertThat(cartService.findDriftedCartIds()).isEmpty();
+    }
+
+    @Test
+    void testFailedGenerationLeavesNothingBehind() {
+        final CatalogGenerator failing = new CatalogGenerator(
+                failingOnCartItems(), null, true, 100, 10, 2, 6, 10, 0, 10, 16, 7L);
+
+        Assertions.assertThatThrownBy(failing::generate).isInstanceOf(RuntimeException.class);
+
+        Assertions.assertThat(productRepo.count()).isEqualTo(500);
+        Assertions.assertThat(recipeRepo.count()).isEqualTo(50);
+        Assertions.assertThat(cartRepo.count()).isEqualTo(40);
+    }
+
+    @Test
+    void testReservingIdsNeverMovesASequenceBack() throws SQLException {
+        try (Connection connection = DataSourceResolver.DEFAULT.resolve(dataSource).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE products_seq RESTART WITH 1000001");
+
+            Assertions.assertThatThrownBy(new CatalogGenerator(
+                    failingOnCartItems(), null, true, 100, 10, 2, 6, 10, 0, 10, 16, 7L)::generate);
+
+            try (ResultSet next = statement.executeQuery("SELECT NEXT VALUE FOR products_seq")) {
+                next.next();
+                Assertions.assertThat(next.getLong(1)).isGreaterThanOrEqualTo(1000001 + 100);
+            }
+        }
+    }
+
+    // the pool's connections, except that the cart_items insert fails after products, recipes and carts are sent
+    private @NotNull DataSource failingOnCartItems() {
+        final DataSource pool = DataSourceResolver.DEFAULT.resolve(dataSource);
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+            if (method.getName().equals("isWrapperFor")) {
+                return false; // the generator would unwrap the pool behind this proxy
+            }
+            final Object result = invoke(pool, method, args);
+            if (!(result instanceof Connection connection)) {
+                return result;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (c, m, a) -> {
+                if (m.getName().equals("prepareStatement") && ((String) a[0]).startsWith("INSERT INTO cart_items")) {
+                    throw new SQLException("cart_items unavailable");
+                }
+                return invoke(connection, m, a);
+            });
+        });
+    }
+
+    private static Object invoke(final @NotNull Object target, final @NotNull Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package co.piter.buyrecipes;
 
 import co.piter.buyrecipes.dto.*;
 import co.piter.buyrecipes.service.CartService;
+import io.micronaut.context.annotation.Property;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
@@ -10,7 +11,6 @@ import io.micronaut.http.client.HttpClient;
 import io.micronaut.http.client.annotation.Client;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
-import jakarta.persistence.OptimisticLockException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.MethodOrderer;
@@ -28,10 +28,14 @@ import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+// with as many attempts as writers, every writer gets through: each round of conflicts lets at least one commit
 @MicronautTest
+@Property(name = "buyrecipes.carts.retry.max-attempts", value = "" + ConcurrentCartIT.WRITERS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class ConcurrentCartIT {
 
+    static final int WRITERS = 10;
+
     private static @Nullable Long aliceCartId;
     private static @Nullable Long bobCartId;
 
@@ -145,16 +149,16 @@ public class ConcurrentCartIT {
         assertThat(aliceCart.getTotalInCents()).isEqualTo(bobCart.getTotalInCents());
     }
 
+    // updateCart retries on conflict, so every writer gets through: none may see an OptimisticLockException
     @Test
     @Order(4)
-    void demonstrateConcurrentCartUpdatesWithOptimisticLocking() throws InterruptedException, ExecutionException, TimeoutException {
-        final ExecutorService executor = Executors.newFixedThreadPool(10);
+    void demonstrateConcurrentCartUpdatesAreRetriedOnConflict() throws InterruptedException, ExecutionException, TimeoutException {
+        final ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
         final AtomicInteger successCount = new AtomicInteger(0);
-        final AtomicInteger conflictCount = new AtomicInteger(0);
         final AtomicReference<Exception> unexpectedException = new AtomicReference<>();
 
-        final CompletableFuture<?>[] futures = new CompletableFuture[10];
-        for (int i = 0; i < 10; i++) {
+        final CompletableFuture<?>[] futures = new CompletableFuture[WRITERS];
+        for (int i = 0; i < WRITERS; i++) {
             final int attemptNumber = i;
             futures[i] = CompletableFuture.runAsync(() -> {
                 try {
@@ -164,8 +168,6 @@ public class ConcurrentCartIT {
                     if (result.isPresent()) {
                         successCount.incrementAndGet();
                     }
-                } catch (OptimisticLockException e) {
-                    conflictCount.incrementAndGet();
                 } catch (Exception e) {
                     unexpectedException.set(e);
                 }
@@ -175,14 +177,13 @@ public class ConcurrentCartIT {
         CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
         executor.shutdown();
 
-        assertThat(successCount.get()).isGreaterThanOrEqualTo(1);
         assertThat(unexpectedException.get()).isNull();
-        assertThat(successCount.get() + conflictCount.get()).isEqualTo(10);
+        assertThat(successCount.get()).isEqualTo(WRITERS);
 
         final CartDto finalCart = client.toBlocking()
                 .retrieve(HttpRequest.GET("/carts/" + aliceCartId), CartDto.class);
         assertThat(finalCart).isNotNull();
-        assertThat(finalCart.getTotalInCents()).isGreaterThan(0);
+        assertThat(finalCart.getTotalInCents()).isBetween(1000, 1000 + (WRITERS - 1) * 100);
     }
 
     @Test
@@ -209,4 +210,44 @@ public class ConcurrentCartIT {
                 .getTotalInCents())
                 .isEqualTo(initialTotal + 500);
     }
+
+    // concurrent add_recipe calls on one cart conflict on its version and on its lines, the retries must end up with
+    // every recipe counted exactly once
+    @Test
+    @Order(6)
+    void demonstrateConcurrentAddRecipeOnOneCartAddsUp() throws InterruptedException, ExecutionException, TimeoutException {
+        final Long sharedCartId = client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+        final Long referenceCartId = client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+        final int recipeTotal = client.toBlocking()
+                .retrieve(HttpRequest.POST(
+                        "/carts/" + referenceCartId + "/add_recipe",
+                        new AddRecipeRequest(requireNonNull(paellaRecipeId))), CartDto.class)
+                .getTotalInCents();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        final CompletableFuture<?>[] futures = new CompletableFuture[WRITERS];
+        for (int i = 0; i < WRITERS; i++) {
+            futures[i] = CompletableFuture.supplyAsync(() -> client.toBlocking()
+                    .exchange(HttpRequest.POST(
+                            "/carts/" + sharedCartId + "/add_recipe",
+                            new AddRecipeRequest(requireNonNull(paellaRecipeId))), CartDto.class)
+                    .getStatus(), executor);
+        }
+
+        CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        for (CompletableFuture<?> future : futures) {
+            assertThat(future.get()).isEqualTo(HttpStatus.OK);
+        }
+        assertThat(recipeTotal).isGreaterThan(0);
+        assertThat(client.toBlocking()
+                .retrieve(HttpRequest.GET("/carts/" + sharedCartId), CartDto.class)
+                .getTotalInCents())
+                .isEqualTo(WRITERS * recipeTotal);
+    }
 }
\ No newline at end of file
@@ -8,14 +8,20 @@ import co.piter.buyrecipes.repo.CartRepo;
 import co.piter.buyrecipes.repo.ProductRepo;
 import co.piter.buyrecipes.repo.RecipeIngredientRepo;
 import co.piter.buyrecipes.repo.RecipeRepo;
+import co.piter.buyrecipes.service.RecipeCostService;
 import io.micronaut.context.event.ApplicationEventListener;
 import io.micronaut.runtime.server.event.ServerStartupEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +39,12 @@ class DataLoaderTest {
     @Mock
     private CartRepo cartRepo;
 
+    @Mock
+    private CatalogGenerator catalogGenerator;
+
+    @Mock
+    private RecipeCostService recipeCostService;
+
     @Mock
     private ServerStartupEvent serverStartupEvent;
 
@@ -41,7 +53,8 @@ class DataLoaderTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        dataLoader = new DataLoader(productRepo, recipeRepo, recipeIngredientRepo, cartRepo);
+        dataLoader = new DataLoader(
+                productRepo, new SampleData(productRepo, recipeRepo, recipeIngredientRepo, cartRepo), catalogGenerator, recipeCostService);
     }
 
     @Test
@@ -69,15 +82,77 @@ class DataLoaderTest {
         verify(recipeRepo, never()).save(any(Recipe.class));
         verify(recipeIngredientRepo, never()).save(any(RecipeIngredient.class));
         verify(cartRepo, never()).save(any(Cart.class));
+        verify(productRepo, never()).saveAll(any());
+        verify(recipeIngredientRepo, never()).saveAll(any());
+        verify(recipeCostService).backfillRecipeCosts();
+    }
+
+    @Test
+    void onApplicationEvent_WhenNoProductsExist_ShouldSaveEachTableInOneCall() {
+        final AtomicLong ids = new AtomicLong();
+        when(productRepo.count()).thenReturn(0L);
+        when(productRepo.saveAll(any())).thenAnswer(invocation -> {
+            final Iterable<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setId(ids.incrementAndGet()));
+            return products;
+        });
+        when(recipeRepo.saveAll(any())).thenAnswer(invocation -> {
+            final Iterable<Recipe> recipes = invocation.getArgument(0);
+            recipes.forEach(recipe -> recipe.setId(ids.incrementAndGet()));
+            return recipes;
+        });
+
+        dataLoader.onApplicationEvent(serverStartupEvent);
+
+        final ArgumentCaptor<List<RecipeIngredient>> ingredients = ArgumentCaptor.forClass(List.class);
+        verify(recipeIngredientRepo).saveAll(ingredients.capture());
+        assertThat(ingredients.getValue()).hasSize(22);
+        verify(productRepo, never()).save(any(Product.class));
+        verify(recipeIngredientRepo, never()).save(any(RecipeIngredient.class));
+        verify(cartRepo).saveAll(any());
+        verify(recipeCostService).backfillRecipeCosts();
+    }
+
+    @Test
+    void onApplicationEvent_WhenSampleDataFails_ShouldRethrowWithoutBackfilling() {
+        final SampleData sampleData = mock(SampleData.class);
+        final IllegalStateException failure = new IllegalStateException("database unavailable");
+        when(productRepo.count()).thenReturn(0L);
+        doThrow(failure).when(sampleData).load();
+
+        assertThatThrownBy(() -> new DataLoader(productRepo, sampleData, catalogGenerator, recipeCostService)
+                .onApplicationEvent(serverStartupEvent))
+                .isInstanceOf(RuntimeException.class)
+                .hasCause(failure);
+        verify(recipeCostService, never()).backfillRecipeCosts();
+    }
+
+    @Test
+    void onApplicationEvent_WhenGeneratorEnabled_ShouldGenerateInsteadOfSampleData() {
+        when(productRepo.count()).thenReturn(0L);
+        when(catalogGenerator.isEnabled()).thenReturn(true);
+        dataLoader.onApplicationEvent(serverStartupEvent);
+        verify(catalogGenerator).generate();
+        verify(recipeCostService).backfillRecipeCosts();
+        verify(productRepo, never()).save(any(Product.class));
+        verify(cartRepo, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void onApplicationEvent_WhenProductsExist_ShouldNotGenerate() {
+        when(productRepo.count()).thenReturn(5L);
+        when(catalogGenerator.isEnabled()).thenReturn(true);
+        dataLoader.onApplicationEvent(serverStartupEvent);
+        verify(catalogGenerator, never()).generate();
     }
 
     @Test
     void constructor_ShouldCreateDataLoader() {
         final DataLoader testDataLoader = new DataLoader(
                 productRepo,
-                recipeRepo,
-                recipeIngredientRepo,
-                cartRepo);
+                new SampleData(productRepo, recipeRepo, recipeIngredientRepo, cartRepo),
+                catalogGenerator,
+                recipeCostService);
         assertThat(testDataLoader).isNotNull();
         assertThat(testDataLoader).isInstanceOf(ApplicationEventListener.class);
     }
@@ -0,0 +1,108 @@
+package co.piter.buyrecipes.metrics;
+
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.type.ReturnType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class QueryBudgetInterceptorTest {
+
+    @Mock
+    private MethodInvocationContext<Object, Object> context;
+
+    @Mock
+    private ReturnType<Object> returnType;
+
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        when(context.getReturnType()).thenReturn(returnType);
+        doReturn(String.class).when(returnType).getType();
+        doReturn(Object.class).when(context).getDeclaringType();
+        when(context.getMethodName()).thenReturn("getCartById");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void intercept_WithinBudget_ShouldReturnTheResult() {
+        issuing(3);
+
+        assertThat(new QueryBudgetInterceptor("fail", 3).intercept(context)).isEqualTo("cart");
+    }
+
+    @Test
+    void intercept_OverBudgetWhenWarning_ShouldStillReturnTheResult() {
+        issuing(4);
+
+        assertThat(new QueryBudgetInterceptor("warn", 3).intercept(context)).isEqualTo("cart");
+    }
+
+    @Test
+    void intercept_OverBudgetWhenFailing_ShouldReportTheMostRepeatedStatement() {
+        issuing(4);
+
+        assertThatThrownBy(() -> new QueryBudgetInterceptor("fail", 3).intercept(context))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("Object.getCartById issued 4 SQL statements, over the budget of 3")
+                .hasMessageContaining("3 x select * from products where id=?");
+    }
+
+    @Test
+    void intercept_OverBudgetWhenFailing_ShouldStopTheCallAtTheFirstStatementOverTheBudget() {
+        issuing(10);
+
+        assertThatThrownBy(() -> new QueryBudgetInterceptor("fail", 3).intercept(context))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("issued 4 SQL statements");
+    }
+
+    @Test
+    void intercept_WhenTheCallIsRetried_ShouldChargeOnlyTheLastAttempt() {
+        when(context.proceed()).thenAnswer(invocation -> {
+            for (int attempt = 1; attempt <= 3; attempt++) {
+                if (attempt > 1) {
+                    StatementCounter.restartRecording();
+                }
+                statementCounter.inspect("select * from carts where id=?");
+                statementCounter.inspect("update carts set version=? where id=? and version=?");
+            }
+            return "cart";
+        });
+
+        assertThat(new QueryBudgetInterceptor("fail", 3).intercept(context)).isEqualTo("cart");
+    }
+
+    @Test
+    void intercept_WithoutBudget_ShouldNotRecord() {
+        issuing(100);
+
+        assertThat(new QueryBudgetInterceptor("none", 3).intercept(context)).isEqualTo("cart");
+        assertThat(StatementCounter.stopRecording()).isEmpty();
+    }
+
+    // one cart read followed by a product read per line, the N+1 the budget is there to catch
+    private void issuing(final int statements) {
+        when(context.proceed()).thenAnswer(invocation -> {
+            statementCounter.inspect("select * from carts where id=?");
+            for (int i = 1; i < statements; i++) {
+                statementCounter.inspect("select * from products where id=?");
+            }
+            return "cart";
+        });
+    }
+}
\ No newline at end of file
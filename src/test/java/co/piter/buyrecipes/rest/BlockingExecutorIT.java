@@ -0,0 +1,102 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.dto.ProductDto;
+import co.piter.buyrecipes.service.ProductService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.annotation.MockBean;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.assertj.core.api.Assertions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// a pool of one thread queueing one request, so that the third request in flight is rejected
+@MicronautTest
+@Property(name = "buyrecipes.executor.virtual-threads", value = "false")
+@Property(name = "buyrecipes.executor.threads", value = "1")
+@Property(name = "buyrecipes.executor.queue-capacity", value = "1")
+class BlockingExecutorIT {
+
+    private static final @NotNull AtomicReference<String> lastThread = new AtomicReference<>();
+    private static final @NotNull AtomicReference<String> lastEndpoint = new AtomicReference<>();
+    private static final @NotNull AtomicReference<CountDownLatch> release = new AtomicReference<>(new CountDownLatch(0));
+
+    @Inject
+    @Client("/")
+    @NotNull HttpClient client;
+
+    @Inject
+    @NotNull BlockingExecutor blockingExecutor;
+
+    @MockBean(ProductService.class)
+    @NotNull ProductService productService() {
+        final ProductService productService = mock(ProductService.class);
+        when(productService.getProductById(any())).thenAnswer(invocation -> {
+            lastThread.set(Thread.currentThread().getName());
+            lastEndpoint.set(MDC.get("endpoint"));
+            release.get().await(10, TimeUnit.SECONDS);
+            return Optional.of(new ProductDto(invocation.getArgument(0), "Product", 100));
+        });
+        return productService;
+    }
+
+    @Test
+    void testProductRequestsRunOnTheBlockingExecutor() {
+        client.toBlocking().exchange(HttpRequest.GET("/products/1"), ProductDto.class);
+
+        Assertions.assertThat(lastThread.get()).startsWith(BlockingExecutor.NAME + "-");
+    }
+
+    // ProductController has no @QueryBudget, the filter sets the endpoint for every route
+    @Test
+    void testTheEndpointFollowsTheRequestOntoTheBlockingExecutor() {
+        client.toBlocking().exchange(HttpRequest.GET("/products/7"), ProductDto.class);
+
+        Assertions.assertThat(lastEndpoint.get()).isEqualTo("GET /products/7");
+    }
+
+    @Test
+    void testRequestsBeyondTheQueueAreRejectedWith503() throws Exception {
+        release.set(new CountDownLatch(1));
+        try {
+            final CompletableFuture<?> running = CompletableFuture.runAsync(
+                    () -> client.toBlocking().exchange(HttpRequest.GET("/products/1"), ProductDto.class));
+            final CompletableFuture<?> queued = CompletableFuture.runAsync(
+                    () -> client.toBlocking().exchange(HttpRequest.GET("/products/2"), ProductDto.class));
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            // one request holds the only thread, the other fills the queue
+            while ((blockingExecutor.getStats().getActive() < 1 || blockingExecutor.getStats().getQueued() < 1)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertThatThrownBy(() -> client.toBlocking().exchange(HttpRequest.GET("/products/3"), ProductDto.class))
+                    .isInstanceOfSatisfying(HttpClientResponseException.class, e -> {
+                        Assertions.assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                        Assertions.assertThat(e.getResponse().getHeaders().get("Retry-After")).isEqualTo("1");
+                    });
+
+            release.get().countDown();
+            running.get(10, TimeUnit.SECONDS);
+            queued.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.get().countDown();
+        }
+    }
+}
\ No newline at end of file
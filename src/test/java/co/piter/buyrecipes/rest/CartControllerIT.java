@@ -1,8 +1,11 @@
 package co.piter.buyrecipes.rest;
 
+import co.piter.buyrecipes.dto.AddProductRequest;
 import co.piter.buyrecipes.dto.AddRecipeRequest;
+import co.piter.buyrecipes.dto.AddRecipesRequest;
 import co.piter.buyrecipes.dto.CartDto;
 import co.piter.buyrecipes.dto.CreateCartRequest;
+import co.piter.buyrecipes.dto.ProductDto;
 import co.piter.buyrecipes.dto.UpdateCartRequest;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
@@ -69,6 +72,36 @@ class CartControllerIT {
                 .hasMessageContaining("Not Found");
     }
 
+    @Test
+    void testAddRecipesToCart() {
+        final Long cartId = client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+        final HttpRequest<AddRecipesRequest> request = HttpRequest.POST(
+                "/carts/" + cartId + "/add_recipes", new AddRecipesRequest(List.of(1L, 2L)));
+        final HttpResponse<CartDto> response = client.toBlocking().exchange(request, CartDto.class);
+
+        Assertions.assertThat(response.getStatus().getCode()).isEqualTo(200);
+        Assertions.assertThat(response.body()).isNotNull();
+        Assertions.assertThat(response.body().getItems()).isNotEmpty();
+        // one line per product, total weighted by each line's quantity
+        Assertions.assertThat(response.body().getItems()).extracting(ProductDto::getId).doesNotHaveDuplicates();
+        Assertions.assertThat(response.body().getTotalInCents())
+                .isEqualTo(response.body().getItems().stream()
+                        .mapToInt(item -> item.getPriceInCents() * item.getQuantity())
+                        .sum());
+    }
+
+    @Test
+    void testAddRecipesToCartWhenAnyRecipeNotFound() {
+        final HttpRequest<AddRecipesRequest> request = HttpRequest.POST(
+                "/carts/1/add_recipes", new AddRecipesRequest(List.of(1L, 999L)));
+
+        Assertions.assertThatThrownBy(() -> client.toBlocking().exchange(request, CartDto.class))
+                .isInstanceOf(HttpClientResponseException.class)
+                .hasMessageContaining("Not Found");
+    }
+
     @Test
     void testRemoveRecipeFromCart() {
         final AddRecipeRequest addRecipeRequest = new AddRecipeRequest(1L);
@@ -82,6 +115,27 @@ class CartControllerIT {
         Assertions.assertThat(response.body().getId()).isEqualTo(1L);
     }
 
+    @Test
+    void testRemoveRecipeFromCartKeepsUnitsAddedOtherwise() {
+        final Long cartId = client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+        // product 1 is the first ingredient of recipe 1
+        client.toBlocking().exchange(
+                HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(1L)), CartDto.class);
+        client.toBlocking().exchange(
+                HttpRequest.POST("/carts/" + cartId + "/add_recipe", new AddRecipeRequest(1L)), CartDto.class);
+
+        final CartDto cart = client.toBlocking().retrieve(
+                HttpRequest.DELETE("/carts/" + cartId + "/recipes/1"), CartDto.class);
+
+        Assertions.assertThat(cart.getItems()).singleElement().satisfies(item -> {
+            Assertions.assertThat(item.getId()).isEqualTo(1L);
+            Assertions.assertThat(item.getQuantity()).isEqualTo(1);
+        });
+        Assertions.assertThat(cart.getTotalInCents()).isEqualTo(cart.getItems().get(0).getPriceInCents());
+    }
+
     @Test
     void testRemoveRecipeFromCartNotFound() {
         final HttpRequest<Object> request = HttpRequest.DELETE("/carts/999/recipes/1");
@@ -0,0 +1,85 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.dto.AddProductRequest;
+import co.piter.buyrecipes.dto.AddRecipeRequest;
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.CreateCartRequest;
+import co.piter.buyrecipes.dto.ProductDto;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.inject.Inject;
+import org.assertj.core.api.Assertions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// the prod environment against PostgreSQL: flyway migrations, dialect and the ON CONFLICT cart line upsert
+@MicronautTest(environments = "prod")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostgresCartControllerIT implements TestPropertyProvider {
+
+    private final @NotNull TestPostgres postgres = new TestPostgres();
+
+    @Inject
+    @Client("/")
+    @NotNull HttpClient client;
+
+    @Override
+    public @NotNull Map<String, String> getProperties() {
+        return postgres.properties();
+    }
+
+    @AfterAll
+    void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void testAddRecipeTwiceRaisesQuantities() {
+        final Long cartId = createCart();
+        final CartDto once = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_recipe", new AddRecipeRequest(1L)), CartDto.class);
+        final CartDto twice = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_recipe", new AddRecipeRequest(1L)), CartDto.class);
+
+        final Map<Long, Integer> onceQuantities = quantities(once);
+        Assertions.assertThat(onceQuantities).isNotEmpty();
+        Assertions.assertThat(quantities(twice)).isEqualTo(onceQuantities.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> 2 * entry.getValue())));
+        Assertions.assertThat(twice.getTotalInCents()).isEqualTo(2 * once.getTotalInCents());
+        Assertions.assertThat(twice.getTotalInCents())
+                .isEqualTo(twice.getItems().stream()
+                        .mapToInt(item -> item.getPriceInCents() * item.getQuantity())
+                        .sum());
+    }
+
+    @Test
+    void testAddProductTwiceKeepsOneLine() {
+        final Long cartId = createCart();
+        client.toBlocking().exchange(HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(1L)), CartDto.class);
+        final CartDto cart = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(1L)), CartDto.class);
+
+        Assertions.assertThat(cart.getItems()).hasSize(1);
+        Assertions.assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(2);
+        Assertions.assertThat(cart.getTotalInCents()).isEqualTo(2 * cart.getItems().get(0).getPriceInCents());
+    }
+
+    private @NotNull Long createCart() {
+        return client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+    }
+
+    private static @NotNull Map<Long, Integer> quantities(final @NotNull CartDto cart) {
+        return cart.getItems().stream().collect(Collectors.toMap(ProductDto::getId, ProductDto::getQuantity));
+    }
+}
\ No newline at end of file
@@ -1,8 +1,13 @@
 package co.piter.buyrecipes.rest;
 
+import co.piter.buyrecipes.dto.AddProductRequest;
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.CreateCartRequest;
 import co.piter.buyrecipes.dto.CreateProductRequest;
 import co.piter.buyrecipes.dto.ProductDto;
+import co.piter.buyrecipes.dto.UpdateCartRequest;
 import co.piter.buyrecipes.dto.UpdateProductRequest;
+import co.piter.buyrecipes.service.CartService;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
@@ -25,6 +30,9 @@ class ProductControllerIT {
     @Client("/")
     @NotNull HttpClient client;
 
+    @Inject
+    @NotNull CartService cartService;
+
     @Test
     void testCreateProduct() {
         final CreateProductRequest request = new CreateProductRequest("Integration Test Product", 500);
@@ -54,6 +62,26 @@ class ProductControllerIT {
         Assertions.assertThat(firstProduct.getPriceInCents()).isNotNull();
     }
 
+    @Test
+    void testGetProductsPage() {
+        final HttpRequest<Object> request = HttpRequest.GET("/products?after=1&limit=2");
+        final HttpResponse<List<ProductDto>> response = client.toBlocking().exchange(request,
+            Argument.listOf(ProductDto.class));
+
+        Assertions.assertThat(response.getStatus().getCode()).isEqualTo(200);
+        Assertions.assertThat(response.body()).hasSize(2);
+        Assertions.assertThat(response.body()).extracting(ProductDto::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void testStreamProducts() {
+        final HttpRequest<Object> request = HttpRequest.GET("/products/stream");
+        final String body = client.toBlocking().retrieve(request);
+
+        Assertions.assertThat(body).isNotBlank();
+        Assertions.assertThat(body.lines()).allSatisfy(line -> Assertions.assertThat(line).contains("\"id\":"));
+    }
+
     @Test
     void testGetProductById() {
         final HttpRequest<Object> request = HttpRequest.GET("/products/1");
@@ -88,6 +116,25 @@ class ProductControllerIT {
         Assertions.assertThat(response.body().getPriceInCents()).isEqualTo(1000);
     }
 
+    @Test
+    void testUpdateProductRepricesTheCartsHoldingIt() {
+        final Long productId = client.toBlocking().retrieve(
+            HttpRequest.POST("/products", new CreateProductRequest("Product Changing Price", 300)), ProductDto.class).getId();
+        final Long cartId = client.toBlocking().retrieve(
+            HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class).getId();
+        for (int i = 0; i < 2; i++) {
+            client.toBlocking().exchange(
+                HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(productId)), CartDto.class);
+        }
+
+        client.toBlocking().exchange(
+            HttpRequest.PUT("/products/" + productId, new UpdateProductRequest("Product Changing Price", 450)), ProductDto.class);
+
+        final CartDto cart = client.toBlocking().retrieve(HttpRequest.GET("/carts/" + cartId), CartDto.class);
+        Assertions.assertThat(cart.getTotalInCents()).isEqualTo(900);
+        Assertions.assertThat(cartService.findDriftedCartIds()).isEmpty();
+    }
+
     @Test
     void testUpdateProductNotFound() {
         final UpdateProductRequest request = new UpdateProductRequest("Updated Product", 1000);
@@ -110,6 +157,24 @@ class ProductControllerIT {
         Assertions.assertThat(response.getStatus().getCode()).isEqualTo(200);
     }
 
+    @Test
+    void testDeleteProductNeverTakesACartTotalBelowZero() {
+        final Long productId = client.toBlocking().retrieve(
+            HttpRequest.POST("/products", new CreateProductRequest("Product in a Drifted Cart", 250)), ProductDto.class).getId();
+        final Long cartId = client.toBlocking().retrieve(
+            HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class).getId();
+        client.toBlocking().exchange(
+            HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(productId)), CartDto.class);
+        // the stored total drifts below what the line is worth
+        client.toBlocking().exchange(HttpRequest.PUT("/carts/" + cartId, new UpdateCartRequest(100)), CartDto.class);
+
+        client.toBlocking().exchange(HttpRequest.DELETE("/products/" + productId), Void.class);
+
+        final CartDto cart = client.toBlocking().retrieve(HttpRequest.GET("/carts/" + cartId), CartDto.class);
+        Assertions.assertThat(cart.getItems()).isEmpty();
+        Assertions.assertThat(cart.getTotalInCents()).isZero();
+    }
+
     @Test
     void testDeleteProductNotFound() {
         final HttpRequest<Object> request = HttpRequest.DELETE("/products/999");
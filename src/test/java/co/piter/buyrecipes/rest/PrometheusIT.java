@@ -0,0 +1,34 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.dto.CartDto;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.assertj.core.api.Assertions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+@MicronautTest
+class PrometheusIT {
+
+    @Inject
+    @Client("/")
+    @NotNull HttpClient client;
+
+    @Test
+    void testScrapeHasMethodTimersAndStatementCounts() {
+        client.toBlocking().exchange(HttpRequest.GET("/carts/1"), CartDto.class);
+
+        final String scrape = client.toBlocking().retrieve(HttpRequest.GET("/prometheus"), String.class);
+
+        Assertions.assertThat(scrape)
+                .contains("buyrecipes_method_seconds_bucket{class=\"CartController\",exception=\"none\",method=\"getCartById\"")
+                .contains("buyrecipes_method_seconds_bucket{class=\"CartService\",exception=\"none\",method=\"getCartById\"")
+                .contains("buyrecipes_sql_statements_count{class=\"CartController\",method=\"getCartById\"}")
+                .contains("buyrecipes_hibernate_statements_total")
+                .contains("buyrecipes_db_pool_pending")
+                .contains("buyrecipes_executor_wait_seconds_count");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.dto.AddProductRequest;
+import co.piter.buyrecipes.dto.AddRecipeRequest;
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.CreateCartRequest;
+import co.piter.buyrecipes.dto.ProductDto;
+import co.piter.buyrecipes.repo.ReactiveCartRepo;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.assertj.core.api.Assertions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+// the JDBC test database, reached over R2DBC as well
+@MicronautTest(environments = "reactive")
+@Property(name = "r2dbc.datasources.reactive.url", value = "r2dbc:pool:h2:mem:///testdb?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@Property(name = "r2dbc.datasources.reactive.username", value = "sa")
+@Property(name = "r2dbc.datasources.reactive.password", value = "")
+class ReactiveCartControllerIT {
+
+    @Inject
+    @Client("/")
+    @NotNull HttpClient client;
+
+    @Inject
+    @NotNull ApplicationContext context;
+
+    @Test
+    void testReactiveControllerReplacesBlockingOne() {
+        Assertions.assertThat(context.containsBean(ReactiveCartController.class)).isTrue();
+        Assertions.assertThat(context.containsBean(CartController.class)).isFalse();
+    }
+
+    @Test
+    void testRepositoriesAreBuiltForH2() {
+        Assertions.assertThat(context.getBean(ReactiveCartRepo.class)).isInstanceOf(ReactiveCartRepo.H2.class);
+        Assertions.assertThat(context.containsBean(ReactiveCartRepo.Postgres.class)).isFalse();
+    }
+
+    @Test
+    void testGetCartById() {
+        final HttpResponse<CartDto> response = client.toBlocking().exchange(HttpRequest.GET("/carts/1"), CartDto.class);
+
+        Assertions.assertThat(response.getStatus().getCode()).isEqualTo(200);
+        Assertions.assertThat(response.body()).isNotNull();
+        Assertions.assertThat(response.body().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void testGetCartByIdNotFound() {
+        Assertions.assertThatThrownBy(() -> client.toBlocking().exchange(HttpRequest.GET("/carts/999"), CartDto.class))
+                .isInstanceOf(HttpClientResponseException.class)
+                .hasMessageContaining("Not Found");
+    }
+
+    @Test
+    void testGetAllCarts() {
+        final HttpResponse<List<CartDto>> response = client.toBlocking()
+                .exchange(HttpRequest.GET("/carts?limit=2"), Argument.listOf(CartDto.class));
+
+        Assertions.assertThat(response.getStatus().getCode()).isEqualTo(200);
+        Assertions.assertThat(response.body()).isNotNull();
+        Assertions.assertThat(response.body()).hasSizeBetween(1, 2);
+    }
+
+    @Test
+    void testAddAndRemoveProduct() {
+        final Long cartId = createCart();
+        client.toBlocking().exchange(
+                HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(1L)), CartDto.class);
+        final CartDto twice = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(1L)), CartDto.class);
+
+        Assertions.assertThat(twice.getItems()).singleElement().extracting(ProductDto::getQuantity).isEqualTo(2);
+        final int priceInCents = twice.getItems().get(0).getPriceInCents();
+        Assertions.assertThat(twice.getTotalInCents()).isEqualTo(2 * priceInCents);
+
+        final CartDto once = client.toBlocking().retrieve(
+                HttpRequest.DELETE("/carts/" + cartId + "/products/1"), CartDto.class);
+
+        Assertions.assertThat(once.getItems()).singleElement().extracting(ProductDto::getQuantity).isEqualTo(1);
+        Assertions.assertThat(once.getTotalInCents()).isEqualTo(priceInCents);
+    }
+
+    @Test
+    void testAddProductNotFound() {
+        final Long cartId = createCart();
+
+        Assertions.assertThatThrownBy(() -> client.toBlocking().exchange(
+                        HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(999L)), CartDto.class))
+                .isInstanceOf(HttpClientResponseException.class)
+                .hasMessageContaining("Not Found");
+    }
+
+    @Test
+    void testAddRecipeToCart() {
+        final Long cartId = createCart();
+        final CartDto cart = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_recipe", new AddRecipeRequest(1L)), CartDto.class);
+
+        Assertions.assertThat(cart.getItems()).isNotEmpty();
+        Assertions.assertThat(cart.getTotalInCents())
+                .isEqualTo(cart.getItems().stream()
+                        .mapToInt(item -> item.getPriceInCents() * item.getQuantity())
+                        .sum());
+    }
+
+    @Test
+    void testAddRecipeToCartNotFound() {
+        Assertions.assertThatThrownBy(() -> client.toBlocking().exchange(
+                        HttpRequest.POST("/carts/1/add_recipe", new AddRecipeRequest(999L)), CartDto.class))
+                .isInstanceOf(HttpClientResponseException.class)
+                .hasMessageContaining("Not Found");
+    }
+
+    private @NotNull Long createCart() {
+        return client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package co.piter.buyrecipes.rest;
+
+import co.piter.buyrecipes.dto.AddProductRequest;
+import co.piter.buyrecipes.dto.AddRecipeRequest;
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.CreateCartRequest;
+import co.piter.buyrecipes.dto.ProductDto;
+import co.piter.buyrecipes.repo.ReactiveCartItemRepository;
+import co.piter.buyrecipes.repo.ReactiveCartRepo;
+import co.piter.buyrecipes.repo.ReactiveProductRepo;
+import co.piter.buyrecipes.repo.ReactiveRecipeIngredientRepo;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.inject.Inject;
+import org.assertj.core.api.Assertions;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.Map;
+
+// prod,reactive against PostgreSQL: the POSTGRES variants of the R2DBC repositories and the R2DBC line upsert
+@MicronautTest(environments = {"prod", "reactive"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactivePostgresCartControllerIT implements TestPropertyProvider {
+
+    private final @NotNull TestPostgres postgres = new TestPostgres();
+
+    @Inject
+    @Client("/")
+    @NotNull HttpClient client;
+
+    @Inject
+    @NotNull ApplicationContext context;
+
+    @Override
+    public @NotNull Map<String, String> getProperties() {
+        return postgres.reactiveProperties();
+    }
+
+    @AfterAll
+    void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void testRepositoriesAreBuiltForPostgres() {
+        Assertions.assertThat(context.getBean(ReactiveCartRepo.class)).isInstanceOf(ReactiveCartRepo.Postgres.class);
+        Assertions.assertThat(context.getBean(ReactiveCartItemRepository.class)).isInstanceOf(ReactiveCartItemRepository.Postgres.class);
+        Assertions.assertThat(context.getBean(ReactiveProductRepo.class)).isInstanceOf(ReactiveProductRepo.Postgres.class);
+        Assertions.assertThat(context.getBean(ReactiveRecipeIngredientRepo.class)).isInstanceOf(ReactiveRecipeIngredientRepo.Postgres.class);
+    }
+
+    @Test
+    void testAddRecipeTwiceDoublesTheCart() {
+        final Long cartId = createCart();
+        final CartDto once = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_recipe", new AddRecipeRequest(1L)), CartDto.class);
+        final CartDto twice = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_recipe", new AddRecipeRequest(1L)), CartDto.class);
+
+        Assertions.assertThat(once.getItems()).isNotEmpty();
+        Assertions.assertThat(twice.getItems()).hasSameSizeAs(once.getItems());
+        Assertions.assertThat(twice.getTotalInCents()).isEqualTo(2 * once.getTotalInCents());
+        Assertions.assertThat(client.toBlocking().retrieve(HttpRequest.GET("/carts/" + cartId), CartDto.class).getTotalInCents())
+                .isEqualTo(twice.getTotalInCents());
+    }
+
+    @Test
+    void testAddAndRemoveProduct() {
+        final Long cartId = createCart();
+        client.toBlocking().exchange(
+                HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(1L)), CartDto.class);
+        final CartDto twice = client.toBlocking().retrieve(
+                HttpRequest.POST("/carts/" + cartId + "/add_product", new AddProductRequest(1L)), CartDto.class);
+
+        Assertions.assertThat(twice.getItems()).singleElement().extracting(ProductDto::getQuantity).isEqualTo(2);
+
+        final CartDto once = client.toBlocking().retrieve(
+                HttpRequest.DELETE("/carts/" + cartId + "/products/1"), CartDto.class);
+
+        Assertions.assertThat(once.getItems()).singleElement().extracting(ProductDto::getQuantity).isEqualTo(1);
+        Assertions.assertThat(once.getTotalInCents()).isEqualTo(once.getItems().get(0).getPriceInCents());
+    }
+
+    private @NotNull Long createCart() {
+        return client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+    }
+}
\ No newline at end of file
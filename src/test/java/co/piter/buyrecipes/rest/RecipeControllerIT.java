@@ -1,6 +1,8 @@
 package co.piter.buyrecipes.rest;
 
 import co.piter.buyrecipes.dto.CreateRecipeRequest;
+import co.piter.buyrecipes.dto.ProductDto;
+import co.piter.buyrecipes.dto.RecipeCostDto;
 import co.piter.buyrecipes.dto.RecipeDto;
 import co.piter.buyrecipes.dto.UpdateRecipeRequest;
 import io.micronaut.core.type.Argument;
@@ -129,4 +131,26 @@ class RecipeControllerIT {
             .isInstanceOf(HttpClientResponseException.class)
             .hasMessageContaining("Not Found");
     }
+
+    @Test
+    void testGetRecipeCost() {
+        final RecipeDto recipe = client.toBlocking().retrieve(HttpRequest.GET("/recipes/1"), RecipeDto.class);
+        final HttpResponse<RecipeCostDto> response = client.toBlocking().exchange(
+            HttpRequest.GET("/recipes/1/cost"), RecipeCostDto.class);
+
+        Assertions.assertThat(response.getStatus().getCode()).isEqualTo(200);
+        Assertions.assertThat(response.body()).isNotNull();
+        Assertions.assertThat(response.body().getRecipeId()).isEqualTo(1L);
+        Assertions.assertThat(response.body().getCostInCents())
+            .isEqualTo(recipe.getIngredients().stream().mapToLong(ProductDto::getPriceInCents).sum());
+    }
+
+    @Test
+    void testGetRecipeCostNotFound() {
+        final HttpRequest<Object> request = HttpRequest.GET("/recipes/999/cost");
+
+        Assertions.assertThatThrownBy(() -> client.toBlocking().exchange(request, RecipeCostDto.class))
+            .isInstanceOf(HttpClientResponseException.class)
+            .hasMessageContaining("Not Found");
+    }
 }
\ No newline at end of file
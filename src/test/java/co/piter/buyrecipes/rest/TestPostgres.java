@@ -0,0 +1,89 @@
+package co.piter.buyrecipes.rest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNullElse;
+
+// the PostgreSQL of the prod environment ITs. An embedded server by default; initdb refuses to run as root, as in most
+// containers and CI runners, so there the tests fail unless BUYRECIPES_TEST_POSTGRES_URL points them at a server, where
+// they migrate a schema of their own and clean it first
+final class TestPostgres implements AutoCloseable {
+
+    private static final @NotNull String SCHEMA = "buyrecipes_it";
+
+    private @Nullable EmbeddedPostgres embedded;
+    private @Nullable String jdbcUrl;
+    private @Nullable String r2dbcUrl;
+    private @NotNull String username = "postgres";
+    private @NotNull String password = "";
+
+    // the JDBC datasource, over application-test.yml's H2
+    @NotNull Map<String, String> properties() {
+        start();
+        final Map<String, String> properties = new HashMap<>(Map.of(
+                "datasources.default.url", requireNonNullElse(jdbcUrl, ""),
+                "datasources.default.username", username,
+                "datasources.default.password", password,
+                "datasources.default.driverClassName", "org.postgresql.Driver",
+                "datasources.default.dialect", "POSTGRES",
+                "jpa.default.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect"));
+        if (embedded == null) {
+            properties.putAll(Map.of(
+                    "flyway.datasources.default.schemas", SCHEMA,
+                    "flyway.datasources.default.clean-schema", "true",
+                    "flyway.datasources.default.clean-disabled", "false"));
+        }
+        return properties;
+    }
+
+    // the JDBC datasource and the reactive environment's R2DBC one on the same database
+    @NotNull Map<String, String> reactiveProperties() {
+        final Map<String, String> properties = properties();
+        properties.putAll(Map.of(
+                "r2dbc.datasources.reactive.url", requireNonNullElse(r2dbcUrl, ""),
+                "r2dbc.datasources.reactive.username", username,
+                "r2dbc.datasources.reactive.password", password,
+                "r2dbc.datasources.reactive.dialect", "POSTGRES"));
+        return properties;
+    }
+
+    private void start() {
+        if (jdbcUrl != null) {
+            return;
+        }
+        final String url = System.getenv("BUYRECIPES_TEST_POSTGRES_URL");
+        if (url != null && !url.isBlank()) {
+            final String address = url.replaceFirst("^jdbc:postgresql://", "").split("\\?", 2)[0];
+            jdbcUrl = url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA;
+            r2dbcUrl = "r2dbc:pool:postgresql://" + address + "?schema=" + SCHEMA;
+            username = requireNonNullElse(System.getenv("BUYRECIPES_TEST_POSTGRES_USER"), username);
+            password = requireNonNullElse(System.getenv("BUYRECIPES_TEST_POSTGRES_PASSWORD"), password);
+            return;
+        }
+        if ("root".equals(System.getProperty("user.name"))) {
+            throw new IllegalStateException("initdb refuses to run as root: run the tests as another user, "
+                    + "or set BUYRECIPES_TEST_POSTGRES_URL to a PostgreSQL server");
+        }
+        try {
+            embedded = EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        jdbcUrl = embedded.getJdbcUrl(username, "postgres");
+        r2dbcUrl = "r2dbc:pool:postgresql://localhost:" + embedded.getPort() + "/postgres";
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
\ No newline at end of file
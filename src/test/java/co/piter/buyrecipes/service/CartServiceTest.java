@@ -10,19 +10,25 @@ import co.piter.buyrecipes.entity.Product;
 import co.piter.buyrecipes.entity.RecipeIngredient;
 import co.piter.buyrecipes.repo.CartItemRepository;
 import co.piter.buyrecipes.repo.CartRepo;
+import co.piter.buyrecipes.repo.CartTotalDrift;
 import co.piter.buyrecipes.repo.ProductRepo;
 import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import io.micronaut.data.model.Pageable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -50,7 +56,8 @@ class CartServiceTest {
         cartService = new CartService(
                 cartRepo,
                 cartItemRepository,
-                productRepo,
+                new JpaCartLineWriter(cartItemRepository),
+                new ProductCache(productRepo, 100, Duration.ofMinutes(1)),
                 recipeIngredientRepo);
     }
 
@@ -76,9 +83,8 @@ class CartServiceTest {
         sugar.setId(2L);
 
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.findByCartId(1L)).thenReturn(cartItems);
-        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
-        when(productRepo.findById(2L)).thenReturn(Optional.of(sugar));
+        when(cartItemRepository.findByCartIdInOrderById(List.of(1L))).thenReturn(cartItems);
+        when(productRepo.findByIdIn(any())).thenReturn(List.of(flour, sugar));
 
         final Optional<CartDto> result = cartService.getCartById(1L);
         assertThat(result).isPresent();
@@ -97,6 +103,8 @@ class CartServiceTest {
         assertThat(secondItem.getId()).isEqualTo(2L);
         assertThat(secondItem.getName()).isEqualTo("Sugar");
         assertThat(secondItem.getPriceInCents()).isEqualTo(199);
+
+        verify(productRepo, never()).findById(any(Long.class));
     }
 
     @Test
@@ -120,25 +128,57 @@ class CartServiceTest {
         final Product sugar = new Product("Sugar", 199);
         sugar.setId(2L);
 
-        final CartItem cartItem1 = new CartItem(1L, 1L);
-        final CartItem cartItem2 = new CartItem(1L, 2L);
+        final CartItem cartItem1 = new CartItem(1L, 1L, 2);
+        final CartItem cartItem2 = new CartItem(1L, 2L, 1);
         final List<CartItem> finalCartItems = List.of(cartItem1, cartItem2);
 
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
         when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(recipeIngredients);
-        when(cartItemRepository.findByCartId(1L)).thenReturn(finalCartItems);
-        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
-        when(productRepo.findById(2L)).thenReturn(Optional.of(sugar));
+        when(cartItemRepository.findByCartIdAndProductIdIn(eq(1L), any())).thenReturn(List.of());
+        when(cartItemRepository.findByCartIdInOrderById(List.of(1L))).thenReturn(finalCartItems);
+        when(productRepo.findByIdIn(any())).thenReturn(List.of(flour, sugar));
         when(cartRepo.save(any(Cart.class))).thenReturn(cart);
 
         final Optional<CartDto> result = cartService.addRecipeToCart(1L, 1L);
         assertThat(result).isPresent();
+        assertThat(result.get().getItems()).extracting(ProductDto::getQuantity).containsExactly(2, 1);
 
-        verify(cartItemRepository).saveAll(any(List.class));
+        final ArgumentCaptor<List<CartItem>> itemsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(cartItemRepository).saveAll(itemsCaptor.capture());
+        assertThat(itemsCaptor.getValue()).extracting(CartItem::getProductId, CartItem::getQuantity)
+                .containsExactly(tuple(1L, 2), tuple(2L, 1));
+        verify(cartItemRepository, never()).sumPriceInCentsByCartId(any(Long.class));
 
         final ArgumentCaptor<Cart> cartCaptor = ArgumentCaptor.forClass(Cart.class);
         verify(cartRepo).save(cartCaptor.capture());
-        assertThat(cartCaptor.getValue().getTotalInCents()).isEqualTo(498);
+        assertThat(cartCaptor.getValue().getTotalInCents()).isEqualTo(2 * 299 + 199);
+    }
+
+    @Test
+    void addRecipeToCart_WhenProductAlreadyInCart_ShouldRaiseQuantityOfExistingLine() {
+        final Cart cart = new Cart(299);
+        cart.setId(1L);
+
+        final Product flour = new Product("Flour", 299);
+        flour.setId(1L);
+
+        final CartItem existing = new CartItem(1L, 1L);
+        existing.setId(7L);
+
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(List.of(new RecipeIngredient(1L, 1L, 2)));
+        when(cartItemRepository.findByCartIdAndProductIdIn(eq(1L), any())).thenReturn(List.of(existing));
+        when(productRepo.findByIdIn(any())).thenReturn(List.of(flour));
+        when(cartRepo.save(any(Cart.class))).thenReturn(cart);
+
+        assertThat(cartService.addRecipeToCart(1L, 1L)).isPresent();
+
+        final ArgumentCaptor<List<CartItem>> itemsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(cartItemRepository).saveAll(itemsCaptor.capture());
+        assertThat(itemsCaptor.getValue()).containsExactly(existing);
+        assertThat(existing.getId()).isEqualTo(7L);
+        assertThat(existing.getQuantity()).isEqualTo(3);
+        assertThat(cart.getTotalInCents()).isEqualTo(3 * 299);
     }
 
     @Test
@@ -158,6 +198,52 @@ class CartServiceTest {
         verify(cartItemRepository, never()).saveAll(any(List.class));
     }
 
+    @Test
+    void addRecipesToCart_ShouldLoadIngredientsOnceAndSaveCartOnce() {
+        final Cart cart = new Cart(100);
+        cart.setId(1L);
+
+        final Product flour = new Product("Flour", 299);
+        flour.setId(1L);
+        final Product sugar = new Product("Sugar", 199);
+        sugar.setId(2L);
+
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(recipeIngredientRepo.findByRecipeIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                new RecipeIngredient(1L, 1L, 2),
+                new RecipeIngredient(1L, 2L, 1),
+                new RecipeIngredient(2L, 1L, 1)));
+        when(cartItemRepository.findByCartIdAndProductIdIn(eq(1L), any())).thenReturn(List.of());
+        when(productRepo.findByIdIn(any())).thenReturn(List.of(flour, sugar));
+        when(cartRepo.save(any(Cart.class))).thenReturn(cart);
+
+        assertThat(cartService.addRecipesToCart(1L, List.of(1L, 2L, 2L))).isPresent();
+
+        // one line per product, quantities summed over the recipes
+        final ArgumentCaptor<List<CartItem>> itemsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(cartItemRepository).saveAll(itemsCaptor.capture());
+        assertThat(itemsCaptor.getValue()).extracting(CartItem::getProductId, CartItem::getQuantity)
+                .containsExactly(tuple(1L, 4), tuple(2L, 1));
+        verify(cartItemRepository, times(1)).findByCartIdAndProductIdIn(eq(1L), any());
+        verify(recipeIngredientRepo, never()).findByRecipeId(any(Long.class));
+
+        final ArgumentCaptor<Cart> cartCaptor = ArgumentCaptor.forClass(Cart.class);
+        verify(cartRepo, times(1)).save(cartCaptor.capture());
+        assertThat(cartCaptor.getValue().getTotalInCents()).isEqualTo(100 + 4 * 299 + 199);
+    }
+
+    @Test
+    void addRecipesToCart_WhenAnyRecipeNotFound_ShouldAddNothing() {
+        final Cart cart = new Cart(0);
+        cart.setId(1L);
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(recipeIngredientRepo.findByRecipeIdIn(Set.of(1L, 999L))).thenReturn(List.of(new RecipeIngredient(1L, 1L, 2)));
+
+        assertThat(cartService.addRecipesToCart(1L, List.of(1L, 999L))).isEmpty();
+        verify(cartItemRepository, never()).saveAll(any(List.class));
+        verify(cartRepo, never()).save(any(Cart.class));
+    }
+
     @Test
     void addProductToCart_WhenCartAndProductExist_ShouldAddProductToCart() {
         final Cart cart = new Cart(0);
@@ -171,13 +257,17 @@ class CartServiceTest {
 
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
         when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
-        when(cartItemRepository.findByCartId(1L)).thenReturn(finalCartItems);
+        when(cartItemRepository.findByCartIdAndProductIdIn(eq(1L), any())).thenReturn(List.of());
+        when(cartItemRepository.findByCartIdInOrderById(List.of(1L))).thenReturn(finalCartItems);
         when(cartRepo.save(any(Cart.class))).thenReturn(cart);
 
         final Optional<CartDto> result = cartService.addProductToCart(1L, 1L);
         assertThat(result).isPresent();
 
-        verify(cartItemRepository).save(any(CartItem.class));
+        final ArgumentCaptor<List<CartItem>> itemsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(cartItemRepository).saveAll(itemsCaptor.capture());
+        assertThat(itemsCaptor.getValue()).extracting(CartItem::getProductId, CartItem::getQuantity)
+                .containsExactly(tuple(1L, 1));
 
         final ArgumentCaptor<Cart> cartCaptor = ArgumentCaptor.forClass(Cart.class);
         verify(cartRepo).save(cartCaptor.capture());
@@ -188,7 +278,7 @@ class CartServiceTest {
     void addProductToCart_WhenCartNotFound_ShouldReturnEmpty() {
         when(cartRepo.findById(999L)).thenReturn(Optional.empty());
         assertThat(cartService.addProductToCart(999L, 1L)).isEmpty();
-        verify(cartItemRepository, never()).save(any(CartItem.class));
+        verify(cartItemRepository, never()).saveAll(any(List.class));
     }
 
     @Test
@@ -198,7 +288,7 @@ class CartServiceTest {
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
         when(productRepo.findById(999L)).thenReturn(Optional.empty());
         assertThat(cartService.addProductToCart(1L, 999L)).isEmpty();
-        verify(cartItemRepository, never()).save(any(CartItem.class));
+        verify(cartItemRepository, never()).saveAll(any(List.class));
     }
 
     @Test
@@ -209,9 +299,12 @@ class CartServiceTest {
         final CartItem existingCartItem = new CartItem(1L, 1L);
         existingCartItem.setId(1L);
 
+        final Product flour = new Product("Flour", 299);
+        flour.setId(1L);
+
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
         when(cartItemRepository.findByCartIdAndProductId(1L, 1L)).thenReturn(existingCartItem);
-        when(cartItemRepository.findByCartId(1L)).thenReturn(List.of());
+        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
         when(cartRepo.save(any(Cart.class))).thenReturn(cart);
 
         final Optional<CartDto> result = cartService.removeProductFromCart(1L, 1L);
@@ -224,6 +317,30 @@ class CartServiceTest {
         assertThat(cartCaptor.getValue().getTotalInCents()).isEqualTo(0);
     }
 
+    @Test
+    void removeProductFromCart_WhenQuantityAboveOne_ShouldDecrementLine() {
+        final Cart cart = new Cart(598);
+        cart.setId(1L);
+
+        final CartItem existingCartItem = new CartItem(1L, 1L, 2);
+        existingCartItem.setId(1L);
+
+        final Product flour = new Product("Flour", 299);
+        flour.setId(1L);
+
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.findByCartIdAndProductId(1L, 1L)).thenReturn(existingCartItem);
+        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
+        when(cartRepo.save(any(Cart.class))).thenReturn(cart);
+
+        assertThat(cartService.removeProductFromCart(1L, 1L)).isPresent();
+
+        verify(cartItemRepository).save(existingCartItem);
+        verify(cartItemRepository, never()).delete(any(CartItem.class));
+        assertThat(existingCartItem.getQuantity()).isEqualTo(1);
+        assertThat(cart.getTotalInCents()).isEqualTo(299);
+    }
+
     @Test
     void removeProductFromCart_WhenCartNotFound_ShouldReturnEmpty() {
         when(cartRepo.findById(999L)).thenReturn(Optional.empty());
@@ -238,55 +355,48 @@ class CartServiceTest {
 
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
         when(cartItemRepository.findByCartIdAndProductId(1L, 999L)).thenReturn(null);
-        when(cartItemRepository.findByCartId(1L)).thenReturn(List.of());
-        when(cartRepo.save(any(Cart.class))).thenReturn(cart);
 
         final Optional<CartDto> result = cartService.removeProductFromCart(1L, 999L);
         assertThat(result).isPresent();
+        assertThat(result.get().getTotalInCents()).isEqualTo(299);
 
         verify(cartItemRepository, never()).delete(any(CartItem.class));
-
-        final ArgumentCaptor<Cart> cartCaptor = ArgumentCaptor.forClass(Cart.class);
-        verify(cartRepo).save(cartCaptor.capture());
-        assertThat(cartCaptor.getValue().getTotalInCents()).isEqualTo(0);
+        verify(cartRepo, never()).save(any(Cart.class));
     }
 
     @Test
-    void removeRecipeFromCart_WhenCartAndRecipeExist_ShouldRemoveIngredientsFromCart() {
-        final Cart cart = new Cart(498);
+    void removeRecipeFromCart_WhenCartAndRecipeExist_ShouldTakeTheRecipesUnitsOff() {
+        final Cart cart = new Cart(697);
         cart.setId(1L);
-        final RecipeIngredient ingredient1 = new RecipeIngredient(1L, 1L, 2);
-        final RecipeIngredient ingredient2 = new RecipeIngredient(1L, 2L, 1);
-        final List<RecipeIngredient> recipeIngredients = List.of(ingredient1, ingredient2);
-
-        final CartItem cartItem1 = new CartItem(1L, 1L);
-        cartItem1.setId(1L);
-        final CartItem cartItem2 = new CartItem(1L, 1L);
-        cartItem2.setId(2L);
-        final CartItem cartItem3 = new CartItem(1L, 2L);
-        cartItem3.setId(3L);
-
-        final Product flour = new Product("Flour", 299);
-        flour.setId(1L);
-        final Product sugar = new Product("Sugar", 199);
-        sugar.setId(2L);
 
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
-        when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(recipeIngredients);
-        when(cartItemRepository.findByCartIdAndProductId(1L, 1L))
-                .thenReturn(cartItem1);
-        when(cartItemRepository.findByCartIdAndProductId(1L, 2L))
-                .thenReturn(cartItem3);
-        when(cartItemRepository.findByCartId(1L)).thenReturn(List.of());
+        when(cartItemRepository.sumRecipePriceInCentsByCartId(1L, 1L)).thenReturn(498L);
+        when(cartItemRepository.subtractRecipeQuantities(1L, 1L)).thenReturn(2);
         when(cartRepo.save(any(Cart.class))).thenReturn(cart);
 
         assertThat(cartService.removeRecipeFromCart(1L, 1L)).isPresent();
 
-        verify(cartItemRepository).deleteAll(any(List.class));
+        final InOrder inOrder = inOrder(cartItemRepository);
+        inOrder.verify(cartItemRepository).sumRecipePriceInCentsByCartId(1L, 1L);
+        inOrder.verify(cartItemRepository).subtractRecipeQuantities(1L, 1L);
+        inOrder.verify(cartItemRepository).deleteEmptyLinesByCartId(1L);
+        verify(cartItemRepository, never()).sumPriceInCentsByCartId(any(Long.class));
 
         final ArgumentCaptor<Cart> cartCaptor = ArgumentCaptor.forClass(Cart.class);
         verify(cartRepo).save(cartCaptor.capture());
-        assertThat(cartCaptor.getValue().getTotalInCents()).isEqualTo(0);
+        assertThat(cartCaptor.getValue().getTotalInCents()).isEqualTo(199);
+    }
+
+    @Test
+    void removeRecipeFromCart_WhenNothingRemoved_ShouldNotTouchTotal() {
+        final Cart cart = new Cart(299);
+        cart.setId(1L);
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.subtractRecipeQuantities(1L, 2L)).thenReturn(0);
+
+        assertThat(cartService.removeRecipeFromCart(1L, 2L)).map(CartDto::getTotalInCents).contains(299);
+        verify(cartItemRepository, never()).deleteEmptyLinesByCartId(any(Long.class));
+        verify(cartRepo, never()).save(any(Cart.class));
     }
 
     @Test
@@ -297,16 +407,73 @@ class CartServiceTest {
     }
 
     @Test
-    void getAllCarts_WhenCartsExist_ShouldReturnAllCarts() {
+    void reconcileCartTotal_WhenTotalDrifted_ShouldRecomputeFromItems() {
+        final Cart cart = new Cart(100);
+        cart.setId(1L);
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.sumPriceInCentsByCartId(1L)).thenReturn(498L);
+        when(cartRepo.save(any(Cart.class))).thenReturn(cart);
+
+        final Optional<CartDto> result = cartService.reconcileCartTotal(1L);
+        assertThat(result).isPresent();
+        assertThat(result.get().getTotalInCents()).isEqualTo(498);
+        verify(cartRepo).save(cart);
+    }
+
+    @Test
+    void reconcileCartTotal_WhenTotalMatches_ShouldNotSave() {
+        final Cart cart = new Cart(498);
+        cart.setId(1L);
+        when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.sumPriceInCentsByCartId(1L)).thenReturn(498L);
+
+        assertThat(cartService.reconcileCartTotal(1L)).isPresent();
+        verify(cartRepo, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void findDriftedCartIds_ShouldListTheDriftedCarts() {
+        when(cartRepo.findTotalDrifts()).thenReturn(List.of(new CartTotalDrift(2L, 100, 299L)));
+
+        assertThat(cartService.findDriftedCartIds()).containsExactly(2L);
+        verify(cartRepo, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void correctCartTotal_WhenTotalDrifted_ShouldSaveTheItemsTotal() {
+        final Cart cart = new Cart(100);
+        cart.setId(2L);
+        when(cartRepo.findById(2L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.sumPriceInCentsByCartId(2L)).thenReturn(299L);
+        when(cartRepo.save(any(Cart.class))).thenReturn(cart);
+
+        assertThat(cartService.correctCartTotal(2L)).isTrue();
+        assertThat(cart.getTotalInCents()).isEqualTo(299);
+        verify(cartRepo).save(cart);
+    }
+
+    @Test
+    void correctCartTotal_WhenCorrectedMeanwhile_ShouldNotTouchTheCart() {
+        final Cart cart = new Cart(299);
+        cart.setId(2L);
+        when(cartRepo.findById(2L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.sumPriceInCentsByCartId(2L)).thenReturn(299L);
+
+        assertThat(cartService.correctCartTotal(2L)).isFalse();
+        verify(cartRepo, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void getCarts_WhenCartsExist_ShouldReturnAllCarts() {
         final Cart cart1 = new Cart(500);
         cart1.setId(1L);
         final Cart cart2 = new Cart(300);
         cart2.setId(2L);
         final List<Cart> carts = List.of(cart1, cart2);
-        when(cartRepo.findAll()).thenReturn(carts);
-        when(cartItemRepository.findByCartId(1L)).thenReturn(List.of());
-        when(cartItemRepository.findByCartId(2L)).thenReturn(List.of());
-        final List<CartDto> result = cartService.getAllCarts();
+        when(cartRepo.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(carts);
+        final List<CartDto> result = cartService.getCarts(0L, 100);
+        verify(cartItemRepository).findByCartIdInOrderById(List.of(1L, 2L));
+        verify(cartItemRepository, never()).findByCartId(any(Long.class));
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getId()).isEqualTo(1L);
         assertThat(result.get(0).getTotalInCents()).isEqualTo(500);
@@ -315,9 +482,41 @@ class CartServiceTest {
     }
 
     @Test
-    void getAllCarts_WhenNoCartsExist_ShouldReturnEmptyList() {
-        when(cartRepo.findAll()).thenReturn(List.of());
-        assertThat(cartService.getAllCarts()).isEmpty();
+    void getCarts_ShouldFetchItemsAndProductsOnceForAllCarts() {
+        final Cart cart1 = new Cart(299);
+        cart1.setId(1L);
+        final Cart cart2 = new Cart(498);
+        cart2.setId(2L);
+
+        final CartItem item1 = new CartItem(1L, 1L);
+        item1.setId(1L);
+        final CartItem item2 = new CartItem(2L, 1L);
+        item2.setId(2L);
+        final CartItem item3 = new CartItem(2L, 2L);
+        item3.setId(3L);
+
+        final Product flour = new Product("Flour", 299);
+        flour.setId(1L);
+        final Product sugar = new Product("Sugar", 199);
+        sugar.setId(2L);
+
+        when(cartRepo.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of(cart1, cart2));
+        when(cartItemRepository.findByCartIdInOrderById(List.of(1L, 2L))).thenReturn(List.of(item1, item2, item3));
+        when(productRepo.findByIdIn(any())).thenReturn(List.of(flour, sugar));
+
+        final List<CartDto> result = cartService.getCarts(0L, 100);
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getItems()).extracting(ProductDto::getName).containsExactly("Flour");
+        assertThat(result.get(1).getItems()).extracting(ProductDto::getName).containsExactly("Flour", "Sugar");
+
+        verify(productRepo).findByIdIn(any());
+        verify(productRepo, never()).findById(any(Long.class));
+    }
+
+    @Test
+    void getCarts_WhenNoCartsExist_ShouldReturnEmptyList() {
+        when(cartRepo.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of());
+        assertThat(cartService.getCarts(0L, 100)).isEmpty();
     }
 
     @Test
@@ -326,7 +525,6 @@ class CartServiceTest {
         final Cart cart = new Cart(500);
         cart.setId(1L);
         when(cartRepo.save(any(Cart.class))).thenReturn(cart);
-        when(cartItemRepository.findByCartId(1L)).thenReturn(List.of());
         final CartDto result = cartService.createCart(request);
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
@@ -346,7 +544,6 @@ class CartServiceTest {
         updatedCart.setId(1L);
         when(cartRepo.findById(1L)).thenReturn(Optional.of(existingCart));
         when(cartRepo.save(any(Cart.class))).thenReturn(updatedCart);
-        when(cartItemRepository.findByCartId(1L)).thenReturn(List.of());
         final Optional<CartDto> result = cartService.updateCart(1L, request);
         assertThat(result).isPresent();
         assertThat(result.get().getId()).isEqualTo(1L);
@@ -366,25 +563,44 @@ class CartServiceTest {
 
     @Test
     void deleteCart_WhenCartExists_ShouldDeleteCartAndReturnTrue() {
-        final CartItem item1 = new CartItem(1L, 1L);
-        item1.setId(1L);
-        final CartItem item2 = new CartItem(1L, 2L);
-        item2.setId(2L);
-        final List<CartItem> cartItems = List.of(item1, item2);
         final Cart cart = new Cart(0);
         cart.setId(1L);
         when(cartRepo.findById(1L)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.findByCartId(1L)).thenReturn(cartItems);
         assertThat(cartService.deleteCart(1L)).isTrue();
-        verify(cartItemRepository).deleteAll(any(List.class));
+        verify(cartItemRepository).deleteByCartId(1L);
+        verify(cartItemRepository, never()).findByCartId(any(Long.class));
+        verify(cartItemRepository, never()).deleteAll(any(List.class));
         verify(cartRepo).delete(any(Cart.class));
     }
 
+    @Test
+    void onPriceChanged_ShouldRepriceTheTotalsHoldingTheProduct() {
+        cartService.onPriceChanged(1L, -50);
+
+        verify(cartRepo).updateTotalsRepricingProduct(1L, -50);
+    }
+
+    @Test
+    void onPriceChanged_WhenThePriceIsUnchanged_ShouldLeaveTheCartsAlone() {
+        cartService.onPriceChanged(1L, 0);
+
+        verify(cartRepo, never()).updateTotalsRepricingProduct(any(), anyInt());
+    }
+
+    @Test
+    void onProductDeleted_ShouldAdjustTotalsBeforeDeletingItems() {
+        cartService.onProductDeleted(1L, 299);
+
+        final InOrder inOrder = inOrder(cartRepo, cartItemRepository);
+        inOrder.verify(cartRepo).updateTotalsRemovingProduct(1L, 299);
+        inOrder.verify(cartItemRepository).deleteByProductId(1L);
+    }
+
     @Test
     void deleteCart_WhenCartNotFound_ShouldReturnFalse() {
         when(cartRepo.findById(999L)).thenReturn(Optional.empty());
         assertThat(cartService.deleteCart(999L)).isFalse();
-        verify(cartItemRepository, never()).deleteById(any(Long.class));
+        verify(cartItemRepository, never()).deleteByCartId(any(Long.class));
         verify(cartRepo, never()).delete(any(Cart.class));
     }
 }
\ No newline at end of file
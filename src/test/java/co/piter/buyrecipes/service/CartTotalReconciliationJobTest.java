@@ -0,0 +1,56 @@
+package co.piter.buyrecipes.service;
+
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class CartTotalReconciliationJobTest {
+
+    @Mock
+    private CartService cartService;
+
+    private CartTotalReconciliationJob job;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        job = new CartTotalReconciliationJob(cartService);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void reconcile_WhenOneCartFails_ShouldStillCorrectTheOthers() {
+        when(cartService.findDriftedCartIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(cartService.correctCartTotal(1L)).thenReturn(true);
+        when(cartService.correctCartTotal(2L)).thenThrow(new OptimisticLockException("stale cart"));
+        when(cartService.correctCartTotal(3L)).thenReturn(true);
+
+        job.reconcile();
+
+        verify(cartService).correctCartTotal(1L);
+        verify(cartService).correctCartTotal(2L);
+        verify(cartService).correctCartTotal(3L);
+    }
+
+    @Test
+    void reconcile_WhenNoDrift_ShouldNotCorrectAnything() {
+        when(cartService.findDriftedCartIds()).thenReturn(List.of());
+
+        job.reconcile();
+
+        verify(cartService, never()).correctCartTotal(any());
+    }
+}
\ No newline at end of file
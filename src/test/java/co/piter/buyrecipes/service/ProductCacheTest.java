@@ -0,0 +1,105 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.dto.ProductCacheStatsDto;
+import co.piter.buyrecipes.entity.Product;
+import co.piter.buyrecipes.repo.ProductRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ProductCacheTest {
+
+    @Mock
+    private ProductRepo productRepo;
+
+    private ProductCache productCache;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        productCache = new ProductCache(productRepo, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeFromCache() {
+        when(productRepo.findById(1L)).thenReturn(Optional.of(product(1L, "Flour", 299)));
+
+        assertThat(productCache.get(1L)).contains(new CachedProduct(1L, "Flour", 299));
+        assertThat(productCache.get(1L)).contains(new CachedProduct(1L, "Flour", 299));
+
+        verify(productRepo, times(1)).findById(1L);
+        final ProductCacheStatsDto stats = productCache.getStats();
+        assertThat(stats.getHitCount()).isEqualTo(1);
+        assertThat(stats.getMissCount()).isEqualTo(1);
+        assertThat(stats.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void get_WhenProductDoesNotExist_ShouldNotCacheTheMiss() {
+        when(productRepo.findById(9L)).thenReturn(Optional.empty());
+
+        assertThat(productCache.get(9L)).isEmpty();
+        assertThat(productCache.get(9L)).isEmpty();
+
+        verify(productRepo, times(2)).findById(9L);
+    }
+
+    @Test
+    void getAll_ShouldFetchOnlyTheMissesInOneQuery() {
+        when(productRepo.findById(1L)).thenReturn(Optional.of(product(1L, "Flour", 299)));
+        when(productRepo.findByIdIn(Set.of(2L, 3L))).thenReturn(List.of(product(2L, "Sugar", 199)));
+        productCache.get(1L);
+
+        final Map<Long, CachedProduct> result = productCache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        assertThat(result.get(2L).priceInCents()).isEqualTo(199);
+        verify(productRepo).findByIdIn(Set.of(2L, 3L));
+    }
+
+    @Test
+    void invalidate_ShouldReloadOnNextGet() {
+        when(productRepo.findById(1L))
+                .thenReturn(Optional.of(product(1L, "Flour", 299)))
+                .thenReturn(Optional.of(product(1L, "Flour", 349)));
+
+        assertThat(productCache.get(1L)).map(CachedProduct::priceInCents).contains(299);
+        productCache.invalidate(1L);
+        assertThat(productCache.get(1L)).map(CachedProduct::priceInCents).contains(349);
+    }
+
+    @Test
+    void onProductChanged_ShouldReloadOnNextGet() {
+        when(productRepo.findById(1L))
+                .thenReturn(Optional.of(product(1L, "Flour", 299)))
+                .thenReturn(Optional.of(product(1L, "Flour", 349)));
+
+        assertThat(productCache.get(1L)).map(CachedProduct::priceInCents).contains(299);
+        productCache.onProductChanged(new ProductChangedEvent(1L));
+        assertThat(productCache.get(1L)).map(CachedProduct::priceInCents).contains(349);
+    }
+
+    private static Product product(final Long id, final String name, final int priceInCents) {
+        final Product product = new Product(name, priceInCents);
+        product.setId(id);
+        return product;
+    }
+}
\ No newline at end of file
@@ -5,6 +5,9 @@ import co.piter.buyrecipes.dto.ProductDto;
 import co.piter.buyrecipes.dto.UpdateProductRequest;
 import co.piter.buyrecipes.entity.Product;
 import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.data.model.Pageable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +29,18 @@ ProductServiceTest {
     @Mock
     private ProductRepo productRepo;
 
+    @Mock
+    private RecipeCostService recipeCostService;
+
+    @Mock
+    private CartService cartService;
+
+    @Mock
+    private RecipeIngredientRepo recipeIngredientRepo;
+
+    @Mock
+    private ApplicationEventPublisher<ProductChangedEvent> productChangedPublisher;
+
     private ProductService productService;
 
     private AutoCloseable closeable;
@@ -32,7 +48,11 @@ ProductServiceTest {
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
-        productService = new ProductService(productRepo);
+        productService = new ProductService(productRepo, new ProductCache(productRepo, 100, Duration.ofMinutes(1)),
+                recipeCostService,
+                cartService,
+                recipeIngredientRepo,
+                productChangedPublisher);
     }
 
     @AfterEach
@@ -62,20 +82,33 @@ ProductServiceTest {
     }
 
     @Test
-    void testGetAllProducts() {
+    void testGetProducts() {
         final Product product1 = new Product("Product 1", 100);
         product1.setId(1L);
         final Product product2 = new Product("Product 2", 200);
         product2.setId(2L);
 
-        when(productRepo.findAll()).thenReturn(List.of(product1, product2));
+        when(productRepo.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of(product1, product2));
 
-        final List<ProductDto> result = productService.getAllProducts();
+        final List<ProductDto> result = productService.getProducts(0L, 100);
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getName()).isEqualTo("Product 1");
         assertThat(result.get(1).getName()).isEqualTo("Product 2");
     }
 
+    @Test
+    void testGetProducts_ShouldCapPageSize() {
+        when(productRepo.findByIdGreaterThan(eq(5L), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(productService.getProducts(5L, 1_000_000)).isEmpty();
+
+        final ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepo).findByIdGreaterThan(eq(5L), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue().getSize()).isEqualTo(KeysetPage.MAX_LIMIT);
+        assertThat(pageableCaptor.getValue().getOffset()).isZero();
+        verify(productRepo, never()).findAll();
+    }
+
     @Test
     void testGetProductById() {
         final Product product = new Product("Test Product", 100);
@@ -111,6 +144,21 @@ ProductServiceTest {
         assertThat(result).isPresent();
         assertThat(result.get().getName()).isEqualTo("New Name");
         assertThat(result.get().getPriceInCents()).isEqualTo(200);
+        verify(recipeCostService).onPriceChanged(1L, 100L);
+        verify(cartService).onPriceChanged(1L, 100);
+    }
+
+    @Test
+    void testUpdateProduct_ShouldInvalidateCachedProduct() {
+        final Product product = new Product("Old Name", 100);
+        product.setId(1L);
+        when(productRepo.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepo.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(productService.getProductById(1L)).map(ProductDto::getPriceInCents).contains(100);
+        productService.updateProduct(1L, new UpdateProductRequest("New Name", 200));
+        assertThat(productService.getProductById(1L)).map(ProductDto::getPriceInCents).contains(200);
+        verify(productChangedPublisher).publishEvent(new ProductChangedEvent(1L));
     }
 
     @Test
@@ -127,6 +175,10 @@ ProductServiceTest {
         when(productRepo.findById(1L)).thenReturn(Optional.of(product));
         assertThat(productService.deleteProduct(1L)).isTrue();
         verify(productRepo).delete(product);
+        verify(recipeCostService).onPriceChanged(1L, -100L);
+        verify(cartService).onProductDeleted(1L, 100);
+        verify(recipeIngredientRepo).deleteByProductId(1L);
+        verify(productChangedPublisher).publishEvent(new ProductChangedEvent(1L));
     }
 
     @Test
@@ -134,5 +186,7 @@ ProductServiceTest {
         when(productRepo.findById(1L)).thenReturn(Optional.empty());
         assertThat(productService.deleteProduct(1L)).isFalse();
         verify(productRepo, never()).delete(any());
+        verify(cartService, never()).onProductDeleted(any(), anyInt());
+        verify(recipeIngredientRepo, never()).deleteByProductId(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package co.piter.buyrecipes.service;
+
+import co.piter.buyrecipes.dto.RecipeCostDto;
+import co.piter.buyrecipes.entity.Product;
+import co.piter.buyrecipes.entity.RecipeCost;
+import co.piter.buyrecipes.entity.RecipeIngredient;
+import co.piter.buyrecipes.repo.ProductRepo;
+import co.piter.buyrecipes.repo.RecipeCostRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RecipeCostServiceTest {
+
+    @Mock
+    private RecipeCostRepo recipeCostRepo;
+
+    @Mock
+    private RecipeIngredientRepo recipeIngredientRepo;
+
+    @Mock
+    private ProductRepo productRepo;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query backfill;
+
+    private RecipeCostService recipeCostService;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        recipeCostService = new RecipeCostService(recipeCostRepo, recipeIngredientRepo, productRepo, entityManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void getRecipeCost_WhenStored_ShouldNotLoadIngredients() {
+        when(recipeCostRepo.findById(1L)).thenReturn(Optional.of(new RecipeCost(1L, 498L, 797L)));
+
+        assertThat(recipeCostService.getRecipeCost(1L)).contains(new RecipeCostDto(1L, 498L, 797L));
+        verify(recipeIngredientRepo, never()).findRecipeRowsByRecipeId(any());
+    }
+
+    @Test
+    void getRecipeCost_WhenNotStored_ShouldComputeItWithoutStoringIt() {
+        when(recipeCostRepo.findById(1L)).thenReturn(Optional.empty());
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(1L)).thenReturn(List.of(
+                new RecipeIngredientRow(1L, "Cookies", "", 1L, "Flour", 299, 2),
+                new RecipeIngredientRow(1L, "Cookies", "", 2L, "Sugar", 199, 1)));
+
+        assertThat(recipeCostService.getRecipeCost(1L)).contains(new RecipeCostDto(1L, 498L, 797L));
+        verify(recipeCostRepo, never()).save(any(RecipeCost.class));
+    }
+
+    @Test
+    void getRecipeCost_WhenRecipeHasNoIngredients_ShouldBeZero() {
+        when(recipeCostRepo.findById(3L)).thenReturn(Optional.empty());
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(3L)).thenReturn(List.of(
+                new RecipeIngredientRow(3L, "Water", "", null, null, null, null)));
+
+        assertThat(recipeCostService.getRecipeCost(3L)).contains(new RecipeCostDto(3L, 0L, 0L));
+    }
+
+    @Test
+    void getRecipeCost_WhenRecipeDoesNotExist_ShouldReturnEmpty() {
+        when(recipeCostRepo.findById(999L)).thenReturn(Optional.empty());
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(999L)).thenReturn(List.of());
+
+        assertThat(recipeCostService.getRecipeCost(999L)).isEmpty();
+        verify(recipeCostRepo, never()).save(any(RecipeCost.class));
+    }
+
+    @Test
+    void backfillRecipeCosts_ShouldInsertTheMissingCostsInOneStatement() {
+        when(entityManager.createNativeQuery(RecipeCostService.BACKFILL_SQL)).thenReturn(backfill);
+        when(backfill.executeUpdate()).thenReturn(3);
+
+        assertThat(recipeCostService.backfillRecipeCosts()).isEqualTo(3);
+        verify(backfill).executeUpdate();
+    }
+
+    @Test
+    void onIngredientAdded_ShouldAddPriceAndWeightedPrice() {
+        final Product flour = new Product("Flour", 299);
+        flour.setId(1L);
+        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
+
+        recipeCostService.onIngredientAdded(new RecipeIngredient(5L, 1L, 3));
+
+        verify(recipeCostRepo).updateCostByRecipeId(5L, 299L, 897L);
+    }
+
+    @Test
+    void onIngredientRemoved_ShouldSubtractPriceAndWeightedPrice() {
+        final Product flour = new Product("Flour", 299);
+        flour.setId(1L);
+        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
+
+        recipeCostService.onIngredientRemoved(new RecipeIngredient(5L, 1L, 3));
+
+        verify(recipeCostRepo).updateCostByRecipeId(5L, -299L, -897L);
+    }
+
+    @Test
+    void onPriceChanged_ShouldUpdateRecipesInBulkOnlyWhenPriceMoves() {
+        recipeCostService.onPriceChanged(1L, 50L);
+        recipeCostService.onPriceChanged(2L, 0L);
+
+        verify(recipeCostRepo).updateCostByProductPriceChange(1L, 50L);
+        verify(recipeCostRepo, never()).updateCostByProductPriceChange(eq(2L), anyLong());
+    }
+}
\ No newline at end of file
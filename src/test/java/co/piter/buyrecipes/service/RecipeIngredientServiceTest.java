@@ -3,10 +3,12 @@ package co.piter.buyrecipes.service;
 import co.piter.buyrecipes.dto.CreateRecipeIngredientRequest;
 import co.piter.buyrecipes.dto.RecipeIngredientDto;
 import co.piter.buyrecipes.dto.UpdateRecipeIngredientRequest;
+import co.piter.buyrecipes.entity.Product;
 import co.piter.buyrecipes.entity.RecipeIngredient;
 import co.piter.buyrecipes.repo.ProductRepo;
 import co.piter.buyrecipes.repo.RecipeIngredientRepo;
 import co.piter.buyrecipes.repo.RecipeRepo;
+import io.micronaut.data.model.Pageable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +36,9 @@ class RecipeIngredientServiceTest {
     @Mock
     private ProductRepo productRepo;
 
+    @Mock
+    private RecipeCostService recipeCostService;
+
     private RecipeIngredientService recipeIngredientService;
 
     private AutoCloseable closeable;
@@ -40,7 +46,11 @@ class RecipeIngredientServiceTest {
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
-        recipeIngredientService = new RecipeIngredientService(recipeIngredientRepo, recipeRepo, productRepo);
+        recipeIngredientService = new RecipeIngredientService(
+                recipeIngredientRepo,
+                recipeRepo,
+                new ProductCache(productRepo, 100, Duration.ofMinutes(1)),
+                recipeCostService);
     }
 
     @AfterEach
@@ -49,15 +59,15 @@ class RecipeIngredientServiceTest {
     }
 
     @Test
-    void testGetAllRecipeIngredients() {
+    void testGetRecipeIngredients() {
         final RecipeIngredient ingredient1 = new RecipeIngredient(1L, 1L, 2, "cups");
         ingredient1.setId(1L);
         final RecipeIngredient ingredient2 = new RecipeIngredient(2L, 2L, 1, "grams");
         ingredient2.setId(2L);
 
-        when(recipeIngredientRepo.findAll()).thenReturn(List.of(ingredient1, ingredient2));
+        when(recipeIngredientRepo.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of(ingredient1, ingredient2));
 
-        final List<RecipeIngredientDto> result = recipeIngredientService.getAllRecipeIngredients();
+        final List<RecipeIngredientDto> result = recipeIngredientService.getRecipeIngredients(0L, 100);
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getId()).isEqualTo(1L);
         assertThat(result.get(0).getRecipeId()).isEqualTo(1L);
@@ -138,7 +148,7 @@ class RecipeIngredientServiceTest {
         savedIngredient.setId(1L);
 
         when(recipeRepo.findById(1L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Recipe("Test Recipe", "Test Description")));
-        when(productRepo.findById(1L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Product("Test Product", 100)));
+        when(productRepo.findById(1L)).thenReturn(Optional.of(product(1L)));
         when(recipeIngredientRepo.save(any(RecipeIngredient.class))).thenReturn(savedIngredient);
 
         final RecipeIngredientDto result = recipeIngredientService.createRecipeIngredient(request);
@@ -188,7 +198,7 @@ class RecipeIngredientServiceTest {
 
         when(recipeIngredientRepo.findById(1L)).thenReturn(Optional.of(existingIngredient));
         when(recipeRepo.findById(2L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Recipe("Test Recipe", "Test Description")));
-        when(productRepo.findById(2L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Product("Test Product", 100)));
+        when(productRepo.findById(2L)).thenReturn(Optional.of(product(2L)));
         when(recipeIngredientRepo.save(any(RecipeIngredient.class))).thenReturn(updatedIngredient);
 
         final Optional<RecipeIngredientDto> result = recipeIngredientService.updateRecipeIngredient(1L, request);
@@ -198,6 +208,8 @@ class RecipeIngredientServiceTest {
         assertThat(result.get().getProductId()).isEqualTo(2L);
         assertThat(result.get().getQuantity()).isEqualTo(3);
         assertThat(result.get().getUnit()).isEqualTo("kilograms");
+        verify(recipeCostService).onIngredientRemoved(existingIngredient);
+        verify(recipeCostService).onIngredientAdded(updatedIngredient);
     }
 
     @Test
@@ -214,6 +226,7 @@ class RecipeIngredientServiceTest {
         when(recipeIngredientRepo.findById(1L)).thenReturn(Optional.of(ingredient));
         assertThat(recipeIngredientService.deleteRecipeIngredient(1L)).isTrue();
         verify(recipeIngredientRepo).delete(ingredient);
+        verify(recipeCostService).onIngredientRemoved(ingredient);
     }
 
     @Test
@@ -230,7 +243,7 @@ class RecipeIngredientServiceTest {
         savedIngredient.setId(1L);
 
         when(recipeRepo.findById(1L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Recipe("Test Recipe", "Test Description")));
-        when(productRepo.findById(1L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Product("Test Product", 100)));
+        when(productRepo.findById(1L)).thenReturn(Optional.of(product(1L)));
         when(recipeIngredientRepo.save(any(RecipeIngredient.class))).thenReturn(savedIngredient);
 
         final RecipeIngredientDto result = recipeIngredientService.createRecipeIngredient(request);
@@ -252,11 +265,17 @@ class RecipeIngredientServiceTest {
 
         when(recipeIngredientRepo.findById(1L)).thenReturn(Optional.of(existingIngredient));
         when(recipeRepo.findById(1L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Recipe("Test Recipe", "Test Description")));
-        when(productRepo.findById(1L)).thenReturn(Optional.of(new co.piter.buyrecipes.entity.Product("Test Product", 100)));
+        when(productRepo.findById(1L)).thenReturn(Optional.of(product(1L)));
         when(recipeIngredientRepo.save(any(RecipeIngredient.class))).thenReturn(updatedIngredient);
 
         final Optional<RecipeIngredientDto> result = recipeIngredientService.updateRecipeIngredient(1L, request);
         assertThat(result).isPresent();
         assertThat(result.get().getUnit()).isEqualTo("");
     }
+
+    private static Product product(final Long id) {
+        final Product product = new Product("Test Product", 100);
+        product.setId(id);
+        return product;
+    }
 }
\ No newline at end of file
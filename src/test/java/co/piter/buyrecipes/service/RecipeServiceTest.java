@@ -4,12 +4,11 @@ import co.piter.buyrecipes.dto.CreateRecipeRequest;
 import co.piter.buyrecipes.dto.ProductDto;
 import co.piter.buyrecipes.dto.RecipeDto;
 import co.piter.buyrecipes.dto.UpdateRecipeRequest;
-import co.piter.buyrecipes.entity.Product;
 import co.piter.buyrecipes.entity.Recipe;
-import co.piter.buyrecipes.entity.RecipeIngredient;
-import co.piter.buyrecipes.repo.ProductRepo;
 import co.piter.buyrecipes.repo.RecipeIngredientRepo;
+import co.piter.buyrecipes.repo.RecipeIngredientRow;
 import co.piter.buyrecipes.repo.RecipeRepo;
+import io.micronaut.data.model.Pageable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +20,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -33,7 +33,7 @@ class RecipeServiceTest {
     private RecipeIngredientRepo recipeIngredientRepo;
 
     @Mock
-    private ProductRepo productRepo;
+    private RecipeCostService recipeCostService;
 
     private RecipeService recipeService;
 
@@ -42,7 +42,7 @@ class RecipeServiceTest {
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
-        recipeService = new RecipeService(recipeRepo, recipeIngredientRepo, productRepo);
+        recipeService = new RecipeService(recipeRepo, recipeIngredientRepo, recipeCostService);
     }
 
     @AfterEach
@@ -51,32 +51,14 @@ class RecipeServiceTest {
     }
 
     @Test
-    void getAllRecipes_ShouldReturnRecipesWithIngredients() {
-        final Recipe recipe1 = new Recipe("Chocolate Chip Cookies", "Classic cookies");
-        recipe1.setId(1L);
-        final Recipe recipe2 = new Recipe("Pancakes", "Fluffy pancakes");
-        recipe2.setId(2L);
-        final List<Recipe> recipes = List.of(recipe1, recipe2);
-
-        final RecipeIngredient ingredient1 = new RecipeIngredient(1L, 1L, 2);
-        final RecipeIngredient ingredient2 = new RecipeIngredient(1L, 2L, 1);
-        final List<RecipeIngredient> recipe1Ingredients = List.of(ingredient1, ingredient2);
-
-        final RecipeIngredient ingredient3 = new RecipeIngredient(2L, 1L, 1);
-        final List<RecipeIngredient> recipe2Ingredients = List.of(ingredient3);
-
-        final Product flour = new Product("Flour", 299);
-        flour.setId(1L);
-        final Product sugar = new Product("Sugar", 199);
-        sugar.setId(2L);
-
-        when(recipeRepo.findAll()).thenReturn(recipes);
-        when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(recipe1Ingredients);
-        when(recipeIngredientRepo.findByRecipeId(2L)).thenReturn(recipe2Ingredients);
-        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
-        when(productRepo.findById(2L)).thenReturn(Optional.of(sugar));
-
-        final List<RecipeDto> result = recipeService.getAllRecipes();
+    void getRecipes_ShouldReturnRecipesWithIngredients() {
+        when(recipeRepo.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of(recipe(1L), recipe(2L)));
+        when(recipeIngredientRepo.findRecipeRowsByRecipeIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new RecipeIngredientRow(1L, "Chocolate Chip Cookies", "Classic cookies", 1L, "Flour", 299, 2),
+                new RecipeIngredientRow(1L, "Chocolate Chip Cookies", "Classic cookies", 2L, "Sugar", 199, 1),
+                new RecipeIngredientRow(2L, "Pancakes", "Fluffy pancakes", 1L, "Flour", 299, 1)));
+
+        final List<RecipeDto> result = recipeService.getRecipes(0L, 100);
         assertThat(result).hasSize(2);
 
         final RecipeDto firstRecipe = result.get(0);
@@ -102,22 +84,27 @@ class RecipeServiceTest {
         assertThat(secondRecipe.getName()).isEqualTo("Pancakes");
         assertThat(secondRecipe.getDescription()).isEqualTo("Fluffy pancakes");
         assertThat(secondRecipe.getIngredients()).hasSize(1);
+
+        verify(recipeRepo, never()).findAll();
+        verify(recipeIngredientRepo, never()).findByRecipeId(any(Long.class));
     }
 
     @Test
-    void getRecipeById_WhenRecipeExists_ShouldReturnRecipeWithIngredients() {
-        final Recipe recipe = new Recipe("Chocolate Chip Cookies", "Classic cookies");
-        recipe.setId(1L);
-
-        final RecipeIngredient ingredient = new RecipeIngredient(1L, 1L, 2);
-        final List<RecipeIngredient> ingredients = List.of(ingredient);
-
-        final Product flour = new Product("Flour", 299);
-        flour.setId(1L);
+    void getRecipes_WhenRecipeHasNoIngredients_ShouldReturnItWithEmptyIngredients() {
+        when(recipeRepo.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of(recipe(3L)));
+        when(recipeIngredientRepo.findRecipeRowsByRecipeIdIn(List.of(3L))).thenReturn(List.of(
+                new RecipeIngredientRow(3L, "Water", "Just water", null, null, null, null)));
+
+        final List<RecipeDto> result = recipeService.getRecipes(0L, 100);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(3L);
+        assertThat(result.get(0).getIngredients()).isEmpty();
+    }
 
-        when(recipeRepo.findById(1L)).thenReturn(Optional.of(recipe));
-        when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(ingredients);
-        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
+    @Test
+    void getRecipeById_WhenRecipeExists_ShouldReturnRecipeWithIngredients() {
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(1L)).thenReturn(List.of(
+                new RecipeIngredientRow(1L, "Chocolate Chip Cookies", "Classic cookies", 1L, "Flour", 299, 2)));
 
         final Optional<RecipeDto> result = recipeService.getRecipeById(1L);
         assertThat(result).isPresent();
@@ -135,26 +122,28 @@ class RecipeServiceTest {
         assertThat(ingredientDto.getQuantity()).isEqualTo(2);
     }
 
+    @Test
+    void getRecipeById_WhenIngredientProductIsMissing_ShouldThrow() {
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(1L)).thenReturn(List.of(
+                new RecipeIngredientRow(1L, "Chocolate Chip Cookies", "Classic cookies", 1L, "Flour", 299, 2),
+                new RecipeIngredientRow(1L, "Chocolate Chip Cookies", "Classic cookies", 7L, null, null, 1)));
+
+        assertThatThrownBy(() -> recipeService.getRecipeById(1L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Product not found for ingredient: 7");
+    }
+
     @Test
     void getRecipeById_WhenRecipeNotFound_ShouldReturnEmpty() {
-        when(recipeRepo.findById(999L)).thenReturn(Optional.empty());
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(999L)).thenReturn(List.of());
         assertThat(recipeService.getRecipeById(999L)).isEmpty();
     }
 
     @Test
     void getRecipeIngredients_ShouldReturnCorrectIngredients() {
-        final RecipeIngredient ingredient1 = new RecipeIngredient(1L, 1L, 2);
-        final RecipeIngredient ingredient2 = new RecipeIngredient(1L, 2L, 1);
-        final List<RecipeIngredient> ingredients = List.of(ingredient1, ingredient2);
-
-        final Product flour = new Product("Flour", 299);
-        flour.setId(1L);
-        final Product sugar = new Product("Sugar", 199);
-        sugar.setId(2L);
-
-        when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(ingredients);
-        when(productRepo.findById(1L)).thenReturn(Optional.of(flour));
-        when(productRepo.findById(2L)).thenReturn(Optional.of(sugar));
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(1L)).thenReturn(List.of(
+                new RecipeIngredientRow(1L, "Chocolate Chip Cookies", "Classic cookies", 1L, "Flour", 299, 2),
+                new RecipeIngredientRow(1L, "Chocolate Chip Cookies", "Classic cookies", 2L, "Sugar", 199, 1)));
 
         final List<ProductDto> result = recipeService.getRecipeIngredients(1L);
         assertThat(result).hasSize(2);
@@ -179,7 +168,6 @@ class RecipeServiceTest {
         savedRecipe.setId(1L);
 
         when(recipeRepo.save(any(Recipe.class))).thenReturn(savedRecipe);
-        when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(List.of());
 
         final RecipeDto result = recipeService.createRecipe(request);
 
@@ -194,6 +182,7 @@ class RecipeServiceTest {
         final Recipe capturedRecipe = recipeCaptor.getValue();
         assertThat(capturedRecipe.getName()).isEqualTo("Test Recipe");
         assertThat(capturedRecipe.getDescription()).isEqualTo("Test Description");
+        verify(recipeCostService).onRecipeCreated(1L);
     }
 
     @Test
@@ -208,7 +197,7 @@ class RecipeServiceTest {
 
         when(recipeRepo.findById(1L)).thenReturn(Optional.of(existingRecipe));
         when(recipeRepo.save(any(Recipe.class))).thenReturn(updatedRecipe);
-        when(recipeIngredientRepo.findByRecipeId(1L)).thenReturn(List.of());
+        when(recipeIngredientRepo.findRecipeRowsByRecipeId(1L)).thenReturn(List.of());
 
         final Optional<RecipeDto> result = recipeService.updateRecipe(1L, request);
         assertThat(result).isPresent();
@@ -230,6 +219,7 @@ class RecipeServiceTest {
         when(recipeRepo.findById(1L)).thenReturn(Optional.of(recipe));
         assertThat(recipeService.deleteRecipe(1L)).isTrue();
         verify(recipeIngredientRepo).deleteByRecipeId(1L);
+        verify(recipeCostService).onRecipeDeleted(1L);
         verify(recipeRepo).delete(recipe);
     }
 
@@ -240,4 +230,17 @@ class RecipeServiceTest {
         verify(recipeIngredientRepo, never()).deleteByRecipeId(1L);
         verify(recipeRepo, never()).delete(any());
     }
+
+    @Test
+    void getRecipes_WhenPageIsEmpty_ShouldNotQueryIngredients() {
+        when(recipeRepo.findByIdGreaterThan(eq(9L), any(Pageable.class))).thenReturn(List.of());
+        assertThat(recipeService.getRecipes(9L, 100)).isEmpty();
+        verify(recipeIngredientRepo, never()).findRecipeRowsByRecipeIdIn(any());
+    }
+
+    private static Recipe recipe(final Long id) {
+        final Recipe recipe = new Recipe("Recipe " + id, null);
+        recipe.setId(id);
+        return recipe;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package co.piter.buyrecipes.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.type.ReturnType;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Mono;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class RetryOnConflictInterceptorTest {
+
+    @Mock
+    private MethodInvocationContext<Object, Object> context;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RetryOnConflictInterceptor retryOnConflictInterceptor;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        retryOnConflictInterceptor = new RetryOnConflictInterceptor(meterRegistry, 3, Duration.ZERO, Duration.ZERO);
+        doReturn(CartService.class).when(context).getDeclaringType();
+        doReturn(ReturnType.of(Object.class)).when(context).getReturnType();
+        when(context.getMethodName()).thenReturn("addRecipeToCart");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void intercept_AfterAConflict_ShouldRunTheCallAgain() {
+        when(context.proceed(retryOnConflictInterceptor))
+                .thenThrow(new OptimisticLockException("stale cart"))
+                .thenReturn("cart");
+
+        assertThat(retryOnConflictInterceptor.intercept(context)).isEqualTo("cart");
+
+        verify(context, times(2)).proceed(retryOnConflictInterceptor);
+        assertThat(conflicts("retried")).isEqualTo(1.0);
+        assertThat(conflicts("exhausted")).isZero();
+    }
+
+    @Test
+    void intercept_WhenEveryAttemptConflicts_ShouldRethrowTheLastConflict() {
+        final OptimisticLockException last = new OptimisticLockException("still stale");
+        when(context.proceed(retryOnConflictInterceptor))
+                .thenThrow(new OptimisticLockException("stale cart"))
+                .thenThrow(new OptimisticLockException("stale cart"))
+                .thenThrow(last);
+
+        assertThatThrownBy(() -> retryOnConflictInterceptor.intercept(context)).isSameAs(last);
+
+        verify(context, times(3)).proceed(retryOnConflictInterceptor);
+        assertThat(conflicts("retried")).isEqualTo(2.0);
+        assertThat(conflicts("exhausted")).isEqualTo(1.0);
+    }
+
+    @Test
+    void intercept_WhenTheCallFailsOtherwise_ShouldNotRunItAgain() {
+        when(context.proceed(retryOnConflictInterceptor)).thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> retryOnConflictInterceptor.intercept(context)).isInstanceOf(IllegalStateException.class);
+
+        verify(context, times(1)).proceed(retryOnConflictInterceptor);
+        assertThat(meterRegistry.find("buyrecipes.conflicts").counters()).isEmpty();
+    }
+
+    @Test
+    void intercept_WhenAMonoConflicts_ShouldSubscribeToANewCall() {
+        doReturn(ReturnType.of(Mono.class)).when(context).getReturnType();
+        when(context.proceed(retryOnConflictInterceptor))
+                .thenReturn(Mono.error(new io.micronaut.data.exceptions.OptimisticLockException("stale cart")))
+                .thenReturn(Mono.just("cart"));
+
+        final Mono<?> result = (Mono<?>) retryOnConflictInterceptor.intercept(context);
+
+        verify(context, never()).proceed(retryOnConflictInterceptor);
+        assertThat(result.block()).isEqualTo("cart");
+        verify(context, times(2)).proceed(retryOnConflictInterceptor);
+        assertThat(conflicts("retried")).isEqualTo(1.0);
+    }
+
+    @Test
+    void intercept_WhenEveryMonoConflicts_ShouldFailWithTheLastConflict() {
+        final R2dbcDataIntegrityViolationException last = new R2dbcDataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uk_cart_items_cart_product\"");
+        doReturn(ReturnType.of(Mono.class)).when(context).getReturnType();
+        when(context.proceed(retryOnConflictInterceptor))
+                .thenReturn(Mono.error(new io.micronaut.data.exceptions.OptimisticLockException("stale cart")))
+                .thenReturn(Mono.error(new io.micronaut.data.exceptions.OptimisticLockException("stale cart")))
+                .thenReturn(Mono.error(last));
+
+        assertThatThrownBy(((Mono<?>) retryOnConflictInterceptor.intercept(context))::block).isSameAs(last);
+
+        verify(context, times(3)).proceed(retryOnConflictInterceptor);
+        assertThat(conflicts("retried")).isEqualTo(2.0);
+        assertThat(conflicts("exhausted")).isEqualTo(1.0);
+    }
+
+    @Test
+    void isConflict_ShouldRecognizeWrappedConflictsOnly() {
+        assertThat(RetryOnConflictInterceptor.isConflict(
+                new RuntimeException(new StaleObjectStateException("Cart", 1L)))).isTrue();
+        assertThat(RetryOnConflictInterceptor.isConflict(new RuntimeException(new ConstraintViolationException(
+                "duplicate line", new SQLException(), "PUBLIC.UK_CART_ITEMS_CART_PRODUCT_INDEX_4")))).isTrue();
+        assertThat(RetryOnConflictInterceptor.isConflict(new RuntimeException(new ConstraintViolationException(
+                "missing product", new SQLException(), "ck_carts_total")))).isFalse();
+        assertThat(RetryOnConflictInterceptor.isConflict(new IllegalArgumentException())).isFalse();
+    }
+
+    private double conflicts(final String outcome) {
+        return meterRegistry.counter("buyrecipes.conflicts",
+                "class", "CartService", "method", "addRecipeToCart", "outcome", outcome).count();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package co.piter.buyrecipes.tracing;
+
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.type.ReturnType;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class TracedInterceptorTest {
+
+    @Mock
+    private MethodInvocationContext<Object, Object> context;
+
+    @Mock
+    private ReturnType<Object> returnType;
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+    private OpenTelemetrySdk openTelemetry;
+
+    private TracedInterceptor tracedInterceptor;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                        .build())
+                .build();
+        tracedInterceptor = new TracedInterceptor(openTelemetry);
+        when(context.getReturnType()).thenReturn(returnType);
+        doReturn(String.class).when(returnType).getType();
+        doReturn(Object.class).when(context).getDeclaringType();
+        when(context.getMethodName()).thenReturn("findById");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        openTelemetry.close();
+        closeable.close();
+    }
+
+    @Test
+    void intercept_ShouldRunTheCallInsideItsSpan() {
+        when(context.proceed()).thenAnswer(invocation -> Span.current().getSpanContext().getSpanId());
+
+        final Object spanIdDuringCall = tracedInterceptor.intercept(context);
+
+        final List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertThat(spans).singleElement().satisfies(span -> {
+            assertThat(span.getName()).isEqualTo("Object.findById");
+            assertThat(span.getSpanId()).isEqualTo(spanIdDuringCall);
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.UNSET);
+        });
+    }
+
+    @Test
+    void intercept_WhenTheCallFails_ShouldRecordTheException() {
+        when(context.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> tracedInterceptor.intercept(context)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(exporter.getFinishedSpanItems()).singleElement().satisfies(span -> {
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+            assertThat(span.getEvents()).anySatisfy(event -> assertThat(event.getName()).isEqualTo("exception"));
+        });
+    }
+}
\ No newline at end of file
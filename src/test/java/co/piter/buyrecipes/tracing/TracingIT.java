@@ -0,0 +1,114 @@
+package co.piter.buyrecipes.tracing;
+
+import co.piter.buyrecipes.dto.CartDto;
+import co.piter.buyrecipes.dto.CreateCartRequest;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// spans exported in memory instead of otel.traces.exporter, to read back the tree of one request
+@MicronautTest
+@Property(name = "spec.name", value = "TracingIT")
+class TracingIT {
+
+    @Inject
+    @Client("/")
+    @NotNull HttpClient client;
+
+    @Inject
+    @NotNull InMemorySpanExporter spanExporter;
+
+    @Factory
+    @Requires(property = "spec.name", value = "TracingIT")
+    static class InMemoryTracing {
+
+        @Singleton
+        @NotNull InMemorySpanExporter spanExporter() {
+            return InMemorySpanExporter.create();
+        }
+
+        @Singleton
+        @Replaces(OpenTelemetry.class)
+        @NotNull OpenTelemetry openTelemetry(final @NotNull InMemorySpanExporter spanExporter) {
+            return OpenTelemetrySdk.builder()
+                    .setTracerProvider(SdkTracerProvider.builder()
+                            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                            .build())
+                    .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                    .build();
+        }
+    }
+
+    @Test
+    void testARequestTracesControllerServiceRepositoryAndJdbcInOneTree() throws Exception {
+        final Long cartId = client.toBlocking()
+                .retrieve(HttpRequest.POST("/carts", new CreateCartRequest(0)), CartDto.class)
+                .getId();
+        spanExporter.reset();
+
+        client.toBlocking().exchange(HttpRequest.GET("/carts/" + cartId), CartDto.class);
+
+        final SpanData server = serverSpan();
+        final List<SpanData> trace = spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getTraceId().equals(server.getTraceId()))
+                .toList();
+        final SpanData controller = named(trace, "CartController.getCartById");
+        final SpanData service = named(trace, "CartService.getCartById");
+        final SpanData repository = named(trace, "CartRepo.findById");
+
+        // the server span starts on the event loop, the controller runs on the blocking executor
+        assertThat(controller.getParentSpanId()).isEqualTo(server.getSpanId());
+        assertThat(service.getParentSpanId()).isEqualTo(controller.getSpanId());
+        assertThat(repository.getParentSpanId()).isEqualTo(service.getSpanId());
+        assertThat(trace).anySatisfy(span -> {
+            assertThat(span.getKind()).isEqualTo(SpanKind.CLIENT);
+            assertThat(span.getParentSpanId()).isEqualTo(repository.getSpanId());
+            assertThat(span.getAttributes().asMap().values())
+                    .anySatisfy(value -> assertThat(value.toString()).containsIgnoringCase("carts"));
+        });
+    }
+
+    // the server span ends once the response is written, possibly after the client has read it
+    private @NotNull SpanData serverSpan() throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            final Optional<SpanData> server = spanExporter.getFinishedSpanItems().stream()
+                    .filter(span -> span.getKind() == SpanKind.SERVER)
+                    .findFirst();
+            if (server.isPresent()) {
+                return server.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No server span exported");
+    }
+
+    private static @NotNull SpanData named(final @NotNull List<SpanData> trace, final @NotNull String name) {
+        return trace.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in " + trace));
+    }
+}
\ No newline at end of file